@@ -109,6 +109,13 @@
 			
 		new JSONWriter(out).object().key("exceptions").value(exceptions)
 		.endObject();
+    } else if(action.equals("caches")) {
+        JSONObject caches = new JSONObject();
+        caches.put("CLDRFile.distinguishedXPath", CLDRFile.distinguishedXPathStats());
+        caches.put("XPathParts.frozenInstance", "size:" + XPathParts.getFrozenInstanceCacheSize() + " "
+                + XPathParts.getFrozenInstanceCacheStatistics());
+        caches.put("ValuePool", ValuePool.stats());
+        new JSONWriter(out).object().key("caches").value(new JSONObject().put("all", caches)).endObject();
     } else if(action.equals("settings")) {
     	CLDRConfigImpl cci = (CLDRConfigImpl)(CLDRConfig.getInstance());
         new JSONWriter(out).object().key("settings").value(new JSONObject().put("all", cci.toJSONObject())).endObject();
@@ -7096,6 +7096,34 @@ function loadAdminPanel() {
 		loadNext(); // load the first exception
 	});
 
+	addAdminPanel("admin_caches", function(div) {
+		var frag = document.createDocumentFragment();
+		
+		div.className="adminSettings";
+		var u = createChunk("Loading...","div","adminSettingsList");
+		frag.appendChild(u);
+		
+		loadOrFail("do=caches", u, function(json) {
+			if(!json || !json.caches || Object.keys(json.caches.all)==0) {
+				removeAllChildNodes(u);
+				u.appendChild(document.createTextNode(stui.str("nocaches")));
+			} else {
+				var frag2 = document.createDocumentFragment();
+				for(id in json.caches.all) {
+					var cache = createChunk(null,"div","adminSetting");
+					cache.appendChild(createChunk(id,"span","adminSettingId"));
+					cache.appendChild(createChunk(json.caches.all[id],"span","adminSettingValue"));
+					frag2.appendChild(cache);
+				}
+				removeAllChildNodes(u);
+				u.appendChild(frag2);
+			}
+		});
+		
+		removeAllChildNodes(div);
+		div.appendChild(frag);
+	});
+
 	addAdminPanel("admin_settings", function(div) {
 		var frag = document.createDocumentFragment();
 		
@@ -70,6 +70,11 @@ define({
 
 		admin_settings: "Settings",
 		admin_settings_desc: "Survey tool settings",
+
+		admin_caches: "Caches",
+		admin_caches_desc: "Size, hit rate, and memory of the shared caches",
+		nocaches: "(no caches.)",
+
 		adminSettingsChangeTemp: "Temporary change:",
 		appendInputBoxChange: "Change",
 		appendInputBoxCancel: "Clear",
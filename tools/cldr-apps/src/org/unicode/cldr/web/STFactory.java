@@ -46,6 +46,7 @@ import org.unicode.cldr.util.LruMap;
 import org.unicode.cldr.util.Pair;
 import org.unicode.cldr.util.PathHeader;
 import org.unicode.cldr.util.SimpleXMLSource;
+import org.unicode.cldr.util.ValuePool;
 import org.unicode.cldr.util.VoteResolver;
 import org.unicode.cldr.util.VoteResolver.Status;
 import org.unicode.cldr.util.XMLFileReader;
@@ -243,7 +244,7 @@ public class STFactory extends Factory implements BallotBoxFactory<UserRegistry.
                 // fullpath? Otherwise,
                 // fullpath may be ignored if
                 // value is extant.
-                delegate.putValueAtPath(fullPath, res);
+                delegate.putValueAtPath(fullPath, ValuePool.intern(res));
             } else {
                 delegate.removeValueAtDPath(path);
             }
@@ -1507,6 +1508,16 @@ public class STFactory extends Factory implements BallotBoxFactory<UserRegistry.
             return delegate.iterator();
         }
 
+        /*
+         * (non-Javadoc)
+         *
+         * @see org.unicode.cldr.util.XMLSource#iterator(java.lang.String)
+         */
+        @Override
+        public Iterator<String> iterator(String prefix) {
+            return delegate.iterator(prefix);
+        }
+
         /*
          * (non-Javadoc)
          *
@@ -1560,6 +1571,11 @@ public class STFactory extends Factory implements BallotBoxFactory<UserRegistry.
 
         }
 
+        @Override
+        public Iterable<String> getPathsWithValue(String valueToMatch, String pathPrefix) {
+            return delegate.getPathsWithValue(valueToMatch, pathPrefix);
+        }
+
         // /* (non-Javadoc)
         // * @see org.unicode.cldr.util.XMLSource#make(java.lang.String)
         // */
@@ -2219,6 +2235,7 @@ public class STFactory extends Factory implements BallotBoxFactory<UserRegistry.
         PreparedStatement ps = null; // all for mysql, or 1st step for derby
         ResultSet rs = null;
         SimpleXMLSource sxs = new SimpleXMLSource(locale.getBaseName());
+        ValuePool.track(sxs);
         try {
             conn = DBUtils.getInstance().getDBConnection();
 
@@ -2250,7 +2267,7 @@ public class STFactory extends Factory implements BallotBoxFactory<UserRegistry.
                 XPathTable.appendAltProposedPrefix(sb, sub, voteValue);
                 sb.append("\"]");
 
-                sxs.putValueAtPath(sb.toString(), DBUtils.getStringUTF8(rs, 3)); // value
+                sxs.putValueAtPath(sb.toString(), ValuePool.intern(DBUtils.getStringUTF8(rs, 3))); // value
                 // is
                 // never
                 // null,
@@ -379,6 +379,7 @@ public class XPathTable {
     public final void setById(int id, String xpath) {
         stringToId.put(idToString_put(id, xpath), id);
         sidToString.put(getStringID(xpath), xpath);
+        StringId.addCompatibilityId(xpath);
     }
 
     /**
@@ -808,6 +809,12 @@ public class XPathTable {
         String s = sidToString.get(l);
         if (s != null)
             return s;
+        // an ID from StringId, possibly from before a change of StringId.HASH
+        s = StringId.getStringFromId(l);
+        if (s != null && stringToId.containsKey(s)) {
+            sidToString.put(l, s);
+            return s;
+        }
         // slow way
         for (String x : stringToId.keySet()) {
             if (getStringID(x) == l) {
@@ -0,0 +1,54 @@
+package org.unicode.cldr.perf;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.unicode.cldr.util.CLDRConfig;
+import org.unicode.cldr.util.CLDRFile;
+
+/**
+ * Resolved getStringValue for every path of a locale, for a locale with one parent (fr) and with several (pt_PT).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CLDRFileBenchmark {
+    @Param({ "fr", "pt_PT" })
+    public String locale;
+
+    private CLDRFile file;
+    private String[] paths;
+
+    @Setup
+    public void setup() {
+        file = CLDRConfig.getInstance().getCldrFactory().make(locale, true);
+        List<String> list = new ArrayList<String>();
+        for (String path : file) {
+            list.add(path);
+        }
+        paths = list.toArray(new String[list.size()]);
+    }
+
+    @Benchmark
+    public void getStringValue(Blackhole blackhole) {
+        for (String path : paths) {
+            blackhole.consume(file.getStringValue(path));
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package org.unicode.cldr.perf;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.unicode.cldr.test.CheckCLDR;
+import org.unicode.cldr.test.CheckCLDR.CheckStatus;
+import org.unicode.cldr.test.CheckCLDR.Options;
+import org.unicode.cldr.util.CLDRConfig;
+import org.unicode.cldr.util.CLDRFile;
+import org.unicode.cldr.util.Factory;
+
+/**
+ * Running all of the CheckCLDR tests over every path of one locale (fr), as the ConsoleCheckCLDR and the Survey Tool
+ * do. Setting up the checks is done once, outside of the measurement.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CheckCLDRBenchmark {
+    private static final String LOCALE = "fr";
+
+    private CheckCLDR test;
+    private CLDRFile file;
+    private Options options;
+    private String[] paths;
+
+    @Setup
+    public void setup() {
+        Factory factory = CLDRConfig.getInstance().getCldrFactory();
+        file = factory.make(LOCALE, true);
+        test = CheckCLDR.getCheckAll(factory, ".*");
+        options = new Options();
+        test.setCldrFileToCheck(file, options, new ArrayList<CheckStatus>());
+        List<String> list = new ArrayList<String>();
+        for (String path : file) {
+            list.add(path);
+        }
+        paths = list.toArray(new String[list.size()]);
+    }
+
+    @Benchmark
+    public void check(Blackhole blackhole) {
+        List<CheckStatus> result = new ArrayList<CheckStatus>();
+        for (String path : paths) {
+            test.check(path, file.getFullXPath(path), file.getStringValue(path), options, result);
+            blackhole.consume(result.size());
+        }
+    }
+}
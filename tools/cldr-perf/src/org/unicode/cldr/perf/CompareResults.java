@@ -0,0 +1,99 @@
+package org.unicode.cldr.perf;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+/**
+ * Compares two JMH result files (-rf json), and exits with status 1 if any benchmark in the second is slower than
+ * in the first by more than the threshold. Assumes that all the benchmarks measure time per operation.
+ * <p>
+ * Usage: CompareResults baseline.json results.json [threshold, default 0.10]
+ */
+public class CompareResults {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: CompareResults baseline.json results.json [threshold]");
+            System.exit(2);
+        }
+        Map<String, Double> baseline = read(args[0]);
+        Map<String, Double> current = read(args[1]);
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 0.10;
+
+        int regressions = 0;
+        for (Entry<String, Double> entry : current.entrySet()) {
+            String name = entry.getKey();
+            Double old = baseline.get(name);
+            double score = entry.getValue();
+            if (old == null) {
+                System.out.println("new\t" + name + "\t" + score);
+                continue;
+            }
+            double change = (score - old) / old;
+            boolean regressed = change > threshold;
+            if (regressed) {
+                ++regressions;
+            }
+            System.out.println((regressed ? "SLOWER" : "ok") + "\t" + name + "\t" + old + "\t" + score
+                + "\t" + String.format("%+.1f%%", change * 100));
+        }
+        for (String name : baseline.keySet()) {
+            if (!current.containsKey(name)) {
+                System.out.println("missing\t" + name);
+            }
+        }
+        if (regressions != 0) {
+            System.out.println(regressions + " benchmark(s) slower than the baseline by more than "
+                + String.format("%.0f%%", threshold * 100));
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Return a map from benchmark name (with its parameters, if any) to score.
+     */
+    static Map<String, Double> read(String fileName) throws IOException {
+        Map<String, Double> result = new TreeMap<String, Double>();
+        try (Reader reader = new InputStreamReader(new FileInputStream(fileName), StandardCharsets.UTF_8)) {
+            JsonArray runs = new JsonParser().parse(reader).getAsJsonArray();
+            for (JsonElement element : runs) {
+                JsonObject run = element.getAsJsonObject();
+                StringBuilder name = new StringBuilder(run.get("benchmark").getAsString());
+                JsonObject params = run.getAsJsonObject("params");
+                if (params != null) {
+                    String separator = "{";
+                    for (Entry<String, JsonElement> param : toMap(params).entrySet()) {
+                        name.append(separator).append(param.getKey()).append('=')
+                            .append(param.getValue().getAsString());
+                        separator = ",";
+                    }
+                    if (!separator.equals("{")) {
+                        name.append('}');
+                    }
+                }
+                double score = run.getAsJsonObject("primaryMetric").get("score").getAsDouble();
+                result.put(name.toString(), score);
+            }
+        }
+        return result;
+    }
+
+    private static Map<String, JsonElement> toMap(JsonObject object) {
+        Map<String, JsonElement> result = new TreeMap<String, JsonElement>();
+        for (Entry<String, JsonElement> entry : object.entrySet()) {
+            result.put(entry.getKey(), entry.getValue());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,66 @@
+package org.unicode.cldr.perf;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.unicode.cldr.test.CoverageLevel2;
+import org.unicode.cldr.util.CLDRConfig;
+import org.unicode.cldr.util.CLDRFile;
+import org.unicode.cldr.util.SupplementalDataInfo;
+
+/**
+ * Coverage levels for every English path (with the extra paths), for fr: directly from the CoverageLevel2 rules,
+ * and through SupplementalDataInfo.getCoverageLevel, which precomputes them per locale.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CoverageLevelBenchmark {
+    private static final String LOCALE = "fr";
+
+    private SupplementalDataInfo sdi;
+    private CoverageLevel2 coverageLevel;
+    private String[] paths;
+
+    @Setup
+    public void setup() {
+        CLDRConfig config = CLDRConfig.getInstance();
+        sdi = config.getSupplementalDataInfo();
+        coverageLevel = CoverageLevel2.getInstance(sdi, LOCALE);
+        CLDRFile english = config.getEnglish();
+        List<String> list = new ArrayList<String>();
+        for (String path : english.fullIterable()) {
+            list.add(path);
+        }
+        paths = list.toArray(new String[list.size()]);
+    }
+
+    @Benchmark
+    public void getLevel(Blackhole blackhole) {
+        for (String path : paths) {
+            blackhole.consume(coverageLevel.getLevel(path));
+        }
+    }
+
+    @Benchmark
+    public void getCoverageLevel(Blackhole blackhole) {
+        for (String path : paths) {
+            blackhole.consume(sdi.getCoverageLevel(path, LOCALE));
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package org.unicode.cldr.perf;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.unicode.cldr.util.CLDRConfig;
+import org.unicode.cldr.util.CLDRFile;
+import org.unicode.cldr.util.CLDRFile.DraftStatus;
+import org.unicode.cldr.util.CLDRPaths;
+import org.unicode.cldr.util.Factory;
+import org.unicode.cldr.util.SimpleFactory;
+
+/**
+ * Making a locale: cold (reading and parsing the XML file, bypassing the factory caches), and warm (a resolved
+ * file from the factory, after the first call has filled the caches).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FactoryBenchmark {
+    private static final String LOCALE = "fr";
+
+    private Factory factory;
+
+    @Setup
+    public void setup() {
+        factory = CLDRConfig.getInstance().getCldrFactory();
+        factory.make(LOCALE, true);
+    }
+
+    @Benchmark
+    public CLDRFile makeCold() {
+        return SimpleFactory.makeFile(LOCALE, CLDRPaths.MAIN_DIRECTORY, DraftStatus.unconfirmed);
+    }
+
+    @Benchmark
+    public CLDRFile makeWarm() {
+        return factory.make(LOCALE, true);
+    }
+}
@@ -0,0 +1,71 @@
+package org.unicode.cldr.perf;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.unicode.cldr.util.CLDRConfig;
+import org.unicode.cldr.util.CLDRFile;
+import org.unicode.cldr.util.PathHeader;
+
+/**
+ * PathHeader.Factory.fromPath for every English path (with the extra paths): from the cache, and from the rules
+ * (with the cache cleared before each call).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PathHeaderBenchmark {
+    @State(Scope.Benchmark)
+    public static class Paths {
+        PathHeader.Factory factory;
+        String[] paths;
+
+        @Setup
+        public void setup() {
+            CLDRFile english = CLDRConfig.getInstance().getEnglish();
+            factory = PathHeader.getFactory(english);
+            List<String> list = new ArrayList<String>();
+            for (String path : english.fullIterable()) {
+                list.add(path);
+            }
+            paths = list.toArray(new String[list.size()]);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class ClearedPaths extends Paths {
+        @Setup(Level.Invocation)
+        public void clear() {
+            factory.clearCache();
+        }
+    }
+
+    @Benchmark
+    public void fromPathCached(Paths state, Blackhole blackhole) {
+        for (String path : state.paths) {
+            blackhole.consume(state.factory.fromPath(path));
+        }
+    }
+
+    @Benchmark
+    public void fromPathUncached(ClearedPaths state, Blackhole blackhole) {
+        for (String path : state.paths) {
+            blackhole.consume(state.factory.fromPath(path));
+        }
+    }
+}
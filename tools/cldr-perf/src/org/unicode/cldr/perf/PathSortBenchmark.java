@@ -0,0 +1,81 @@
+package org.unicode.cldr.perf;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.unicode.cldr.util.CLDRConfig;
+import org.unicode.cldr.util.DtdData;
+import org.unicode.cldr.util.DtdType;
+
+/**
+ * Sorting the paths of a locale (en, root) in DTD order: with Collections.sort and the comparison without sort keys
+ * (which reparses both paths on every comparison, as the DTD comparator used to), with Collections.sort and the DTD
+ * comparator (which looks up each path's sort key on every comparison), and with DtdComparator.sort (which gets each
+ * key once).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PathSortBenchmark {
+    @Param({ "en", "root" })
+    public String locale;
+
+    private DtdData.DtdComparator comparator;
+    private Comparator<String> partsComparator;
+    private List<String> shuffled;
+
+    @Setup
+    public void setup() {
+        comparator = (DtdData.DtdComparator) DtdData.getInstance(DtdType.ldml).getDtdComparator(null);
+        partsComparator = new Comparator<String>() {
+            @Override
+            public int compare(String path1, String path2) {
+                return comparator.compareParts(path1, path2);
+            }
+        };
+        shuffled = new ArrayList<String>();
+        for (String path : CLDRConfig.getInstance().getCldrFactory().make(locale, false)) {
+            shuffled.add(path);
+        }
+        Collections.shuffle(shuffled, new Random(0));
+    }
+
+    @Benchmark
+    public List<String> sortWithParts() {
+        List<String> paths = new ArrayList<String>(shuffled);
+        Collections.sort(paths, partsComparator);
+        return paths;
+    }
+
+    @Benchmark
+    public List<String> sortWithComparator() {
+        List<String> paths = new ArrayList<String>(shuffled);
+        Collections.sort(paths, comparator);
+        return paths;
+    }
+
+    @Benchmark
+    public List<String> sortWithKeys() {
+        List<String> paths = new ArrayList<String>(shuffled);
+        comparator.sort(paths);
+        return paths;
+    }
+}
@@ -0,0 +1,67 @@
+package org.unicode.cldr.perf;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.unicode.cldr.util.Organization;
+import org.unicode.cldr.util.VoteResolver;
+import org.unicode.cldr.util.VoteResolver.Level;
+import org.unicode.cldr.util.VoteResolver.Status;
+import org.unicode.cldr.util.VoteResolver.VoterInfo;
+
+/**
+ * Resolving the votes on one item: a previous release value, and competing votes from vetters and street users
+ * in several organizations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VoteResolverBenchmark {
+    private static final Organization[] ORGANIZATIONS = {
+        Organization.google, Organization.apple, Organization.ibm, Organization.microsoft, Organization.adobe };
+    private static final String[] VALUES = { "foo", "fii", "fee" };
+
+    private VoteResolver<String> resolver;
+    private int voterCount;
+
+    @Setup
+    public void setup() {
+        Map<Integer, VoterInfo> voterToInfo = new TreeMap<Integer, VoterInfo>();
+        int id = 0;
+        for (Organization organization : ORGANIZATIONS) {
+            voterToInfo.put(id, new VoterInfo(organization, Level.vetter, "vetter" + id));
+            ++id;
+            voterToInfo.put(id, new VoterInfo(organization, Level.street, "street" + id));
+            ++id;
+        }
+        VoteResolver.setVoterToInfo(voterToInfo);
+        voterCount = id;
+        resolver = new VoteResolver<String>();
+    }
+
+    @Benchmark
+    public String resolve() {
+        resolver.clear();
+        resolver.setLocale("de");
+        resolver.setBaileyValue("bailey");
+        resolver.setLastRelease("foo", Status.approved);
+        for (int voter = 0; voter < voterCount; ++voter) {
+            resolver.add(VALUES[voter % VALUES.length], voter);
+        }
+        return resolver.getWinningValue();
+    }
+}
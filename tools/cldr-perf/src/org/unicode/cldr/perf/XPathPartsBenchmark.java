@@ -0,0 +1,64 @@
+package org.unicode.cldr.perf;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.unicode.cldr.util.CLDRConfig;
+import org.unicode.cldr.util.CLDRFile;
+import org.unicode.cldr.util.XPathParts;
+
+/**
+ * Parsing the full paths of English, with and without freezing, and getting the cached frozen instances.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class XPathPartsBenchmark {
+    private String[] paths;
+
+    @Setup
+    public void setup() {
+        CLDRFile english = CLDRConfig.getInstance().getEnglish();
+        List<String> list = new ArrayList<String>();
+        for (String path : english) {
+            list.add(english.getFullXPath(path));
+        }
+        paths = list.toArray(new String[list.size()]);
+    }
+
+    @Benchmark
+    public void parse(Blackhole blackhole) {
+        for (String path : paths) {
+            blackhole.consume(new XPathParts().set(path));
+        }
+    }
+
+    @Benchmark
+    public void parseAndFreeze(Blackhole blackhole) {
+        for (String path : paths) {
+            blackhole.consume(new XPathParts().set(path).freeze());
+        }
+    }
+
+    @Benchmark
+    public void getFrozenInstance(Blackhole blackhole) {
+        for (String path : paths) {
+            blackhole.consume(XPathParts.getFrozenInstance(path));
+        }
+    }
+}
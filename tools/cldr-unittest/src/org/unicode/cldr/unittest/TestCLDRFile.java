@@ -1,12 +1,18 @@
 package org.unicode.cldr.unittest;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
@@ -32,14 +38,19 @@ import org.unicode.cldr.util.LocaleIDParser;
 import org.unicode.cldr.util.PathHeader;
 import org.unicode.cldr.util.PatternCache;
 import org.unicode.cldr.util.SimpleFactory;
+import org.unicode.cldr.util.SimpleXMLSource;
 import org.unicode.cldr.util.SupplementalDataInfo;
 import org.unicode.cldr.util.SupplementalDataInfo.PluralInfo;
 import org.unicode.cldr.util.SupplementalDataInfo.PluralType;
+import org.unicode.cldr.util.ValuePool;
+import org.unicode.cldr.util.XMLSource;
+import org.unicode.cldr.util.XPathParts;
 
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.TreeMultimap;
 import com.ibm.icu.dev.test.TestFmwk;
+import com.ibm.icu.dev.util.CollectionUtilities;
 import com.ibm.icu.impl.Relation;
 import com.ibm.icu.text.NumberFormat;
 import com.ibm.icu.text.UTF16;
@@ -492,6 +503,215 @@ public class TestCLDRFile extends TestFmwk {
         }
     }
 
+    public void TestNondraftNonaltXPath() {
+        String[][] tests = {
+            { "//ldml/foo", "//ldml/foo" },
+            { "//ldml/foo[@type=\"a\"][@draft=\"contributed\"]", "//ldml/foo[@type=\"a\"]" },
+            { "//ldml/foo[@alt=\"short\"]", "//ldml/foo[@alt=\"short\"]" },
+            { "//ldml/foo[@alt=\"proposed-x\"][@draft=\"unconfirmed\"]", "//ldml/foo" },
+            { "//ldml/foo[@alt=\"short-proposed-x\"]/bar[@draft=\"provisional\"]", "//ldml/foo[@alt=\"short\"]/bar" },
+            { "//ldml/foo[@type=\"alt\"][@alt=\"variant\"]", "//ldml/foo[@type=\"alt\"][@alt=\"variant\"]" },
+            { "//ldml/foo[@type='a'][@draft=\"contributed\"]", "//ldml/foo[@type=\"a\"]" },
+        };
+        for (String[] test : tests) {
+            assertEquals(test[0], test[1], CLDRFile.getNondraftNonaltXPath(test[0]));
+        }
+        // the scan must give the same result as reparsing, for real paths
+        for (String locale : new String[] { "de", "sr_Latn", "root" }) {
+            CLDRFile file = testInfo.getCldrFactory().make(locale, false);
+            for (String path : file) {
+                String fullPath = file.getFullXPath(path);
+                assertEquals(fullPath, getNondraftNonaltXPathByParts(fullPath), CLDRFile.getNondraftNonaltXPath(fullPath));
+            }
+        }
+    }
+
+    private static String getNondraftNonaltXPathByParts(String xpath) {
+        XPathParts parts = new XPathParts(null, null).set(xpath);
+        for (int i = 0; i < parts.size(); ++i) {
+            parts.removeAttribute(i, "draft");
+            String alt = parts.getAttributeValue(i, "alt");
+            if (alt != null && alt.contains("proposed")) {
+                int proposedPos = alt.indexOf("proposed");
+                parts.putAttributeValue(i, "alt", proposedPos > 0 ? alt.substring(0, proposedPos - 1) : null);
+            }
+        }
+        return parts.toString();
+    }
+
+    public void TestDistinguishedXPathCache() {
+        String path = "//ldml/localeDisplayNames/languages/language[@type=\"de\"][@draft=\"contributed\"]";
+        String[] normalized = new String[1];
+        String first = CLDRFile.getDistinguishingXPath(path, normalized, true);
+        String firstNormalized = normalized[0];
+        assertEquals("distinguished", "//ldml/localeDisplayNames/languages/language[@type=\"de\"]", first);
+
+        // a hit on an equal (but not identical) path must return the shared instance, and the same normalized path
+        String second = CLDRFile.getDistinguishingXPath(new String(path), normalized, true);
+        assertTrue("interned", first == second);
+        assertEquals("normalized", firstNormalized, normalized[0]);
+
+        String stats = CLDRFile.distinguishedXPathStats();
+        logln(stats);
+        assertTrue("stats", stats.contains("hitRate:"));
+        assertTrue("hits", CLDRFile.getDistinguishedXPathCacheStatistics().hitCount() > 0);
+    }
+
+    public void TestNameMemo() {
+        String regionPath = "//ldml/localeDisplayNames/territories/territory[@type=\"BE\"]";
+        Factory factory = testInfo.getCldrFactory();
+        XMLSource english = factory.makeSource("en").cloneAsThawed();
+        CLDRFile file = new CLDRFile(english, factory.makeSource("root")).freeze();
+
+        assertEquals("composed", "German (Belgium)", file.getName("de_BE"));
+        assertEquals("memoized", "German (Belgium)", file.getName("de_BE"));
+        // a change in the chain reaches the file through the ResolvingSource, and must not leave a stale name behind
+        english.putValueAtDPath(regionPath, "Kingdom of Belgium");
+        assertEquals("after change", "German (Kingdom of Belgium)", file.getName("de_BE"));
+        english.removeValueAtDPath(regionPath);
+        XMLSource removed = factory.makeSource("en").cloneAsThawed();
+        removed.removeValueAtDPath(regionPath);
+        assertEquals("after removal", new CLDRFile(removed, factory.makeSource("root")).freeze().getName("de_BE"),
+            file.getName("de_BE"));
+    }
+
+    public void TestSharedExtraPaths() {
+        CLDRFile de = testInfo.getCldrFactory().make("de", true);
+        // a separately loaded copy has the same inputs, so should get the same set
+        CLDRFile de2 = SimpleFactory.make(CLDRPaths.MAIN_DIRECTORY, ".*").make("de", true);
+        assertTrue("shared", de.getRawExtraPaths() == de2.getRawExtraPaths());
+
+        Collection<String> raw = de.getRawExtraPaths();
+        assertTrue("metazone", raw.contains("//ldml/dates/timeZoneNames/metazone[@type=\"Europe_Central\"]/long/generic"));
+        assertTrue("currency count", raw.contains("//ldml/numbers/currencies/currency[@type=\"EUR\"]/displayName[@count=\"one\"]"));
+        Set<String> paths = new HashSet<String>();
+        for (String path : de) {
+            paths.add(path);
+        }
+        for (String path : de.getExtraPaths()) {
+            assertTrue("raw " + path, raw.contains(path));
+            assertFalse("not in file " + path, paths.contains(path));
+        }
+        // callers get their own copy of the extra paths
+        Collection<String> extras = de.getExtraPaths();
+        extras.clear();
+        assertFalse("fresh copy", de.getExtraPaths().isEmpty());
+    }
+
+    public void TestSortedIterator() {
+        for (String locale : new String[] { "de", "fr", "de_CH" }) {
+            CLDRFile cldrFile = testInfo.getCldrFactory().make(locale, false);
+            for (String prefix : new String[] { "", "//ldml/numbers" }) {
+                Set<String> expected = new TreeSet<String>(cldrFile.getComparator());
+                CollectionUtilities.addAll(cldrFile.iterator(prefix), expected);
+                List<String> actual = new ArrayList<String>();
+                CollectionUtilities.addAll(cldrFile.iterator(prefix, cldrFile.getComparator()), actual);
+                assertEquals(locale + " order " + prefix, new ArrayList<String>(expected), actual);
+            }
+        }
+    }
+
+    public void TestValuePool() {
+        String path = "//ldml/numbers/symbols[@numberSystem=\"latn\"]/decimal";
+        String de = testInfo.getCldrFactory().make("de", false).getStringValue(path);
+        String da = testInfo.getCldrFactory().make("da", false).getStringValue(path);
+        assertEquals("same value", de, da);
+        assertTrue("shared instance", de == da);
+        logln(ValuePool.stats());
+        assertTrue("bytes saved", ValuePool.getBytesSaved() > 0);
+    }
+
+    /**
+     * The fast loader doesn't validate or read the DTD, so check that it gives the same files as the normal loader.
+     */
+    public void TestFastLoad() throws IOException {
+        String[][] samples = {
+            { CLDRPaths.MAIN_DIRECTORY, "root" },
+            { CLDRPaths.MAIN_DIRECTORY, "en" },
+            { CLDRPaths.MAIN_DIRECTORY, "de_CH" },
+            { CLDRPaths.MAIN_DIRECTORY, "ar" },
+            { CLDRPaths.MAIN_DIRECTORY, "ja" },
+            { CLDRPaths.MAIN_DIRECTORY, "sr_Latn" },
+            { CLDRPaths.MAIN_DIRECTORY, "zh_Hant_HK" },
+            { CLDRPaths.ANNOTATIONS_DIRECTORY, "fr" },
+            { CLDRPaths.SUPPLEMENTAL_DIRECTORY, "supplementalMetadata" },
+        };
+        for (String[] sample : samples) {
+            File file = new File(sample[0], sample[1] + ".xml");
+            byte[] bytes = Files.readAllBytes(file.toPath());
+            compareLoads(sample[1], file.getCanonicalPath(), bytes);
+        }
+
+        // non-CDATA attributes (here NMTOKEN and NMTOKENS) have their spaces normalized, as by a validating parser
+        String xml = "<?xml version=\"1.0\" encoding=\"UTF-8\" ?>\n"
+            + "<!DOCTYPE ldml SYSTEM \"../../common/dtd/ldml.dtd\">\n"
+            + "<ldml><identity><version number=\"$Revision$\"/><language type=\"en\"/></identity>\n"
+            + "<localeDisplayNames><territories>\n"
+            + "<territory type=\" GB \" alt=\"  short  \">UK</territory>\n"
+            + "<territory type=\"US\" references=\" R1  R2 \">United States</territory>\n"
+            + "</territories></localeDisplayNames></ldml>";
+        CLDRFile fast = compareLoads("en", new File(CLDRPaths.MAIN_DIRECTORY, "en.xml").getCanonicalPath(),
+            xml.getBytes(StandardCharsets.UTF_8));
+        assertEquals("normalized", "UK",
+            fast.getStringValue("//ldml/localeDisplayNames/territories/territory[@type=\"GB\"][@alt=\"short\"]"));
+    }
+
+    /**
+     * Load the bytes with the normal and the fast loader, check that the files are the same, and return the fast one.
+     */
+    private CLDRFile compareLoads(String locale, String fileName, byte[] bytes) {
+        CLDRFile expected = new CLDRFile(new SimpleXMLSource(locale)).loadFromInputStream(fileName, locale,
+            new ByteArrayInputStream(bytes), DraftStatus.unconfirmed, false);
+        CLDRFile actual = new CLDRFile(new SimpleXMLSource(locale)).loadFromInputStream(fileName, locale,
+            new ByteArrayInputStream(bytes), DraftStatus.unconfirmed, true);
+        Set<String> paths = new TreeSet<String>();
+        CollectionUtilities.addAll(expected.iterator(), paths);
+        Set<String> fastPaths = new TreeSet<String>();
+        CollectionUtilities.addAll(actual.iterator(), fastPaths);
+        if (assertEquals(locale + " paths", paths, fastPaths)) {
+            for (String path : paths) {
+                assertEquals(locale + " value " + path, expected.getStringValue(path), actual.getStringValue(path));
+                assertEquals(locale + " fullPath " + path, expected.getFullXPath(path), actual.getFullXPath(path));
+            }
+        }
+        assertEquals(locale + " dtdVersion", expected.getDtdVersionInfo(), actual.getDtdVersionInfo());
+        return actual;
+    }
+
+    public void TestFlatten() {
+        for (String locale : new String[] { "en_GB", "de_CH", "sr_Latn", "root" }) {
+            CLDRFile resolved = testInfo.getCldrFactory().make(locale, true).freeze();
+            CLDRFile flattened = resolved.flatten();
+            assertTrue(locale + " resolved", flattened.isResolved());
+            Status status = new Status();
+            Status flattenedStatus = new Status();
+            int count = 0;
+            for (String path : resolved.fullIterable()) {
+                ++count;
+                assertEquals(locale + " value " + path, resolved.getStringValue(path), flattened.getStringValue(path));
+                assertEquals(locale + " fullPath " + path, resolved.getFullXPath(path), flattened.getFullXPath(path));
+                assertEquals(locale + " sourceLocale " + path, resolved.getSourceLocaleID(path, status),
+                    flattened.getSourceLocaleID(path, flattenedStatus));
+                assertEquals(locale + " pathWhereFound " + path, status.pathWhereFound, flattenedStatus.pathWhereFound);
+            }
+            long bytes = flattened.getFlattenedMemoryEstimate();
+            logln(locale + "\tpaths: " + count + "\tflattened bytes: " + bytes);
+            assertTrue(locale + " memory estimate", bytes > 0);
+            assertEquals(locale + " unflattened memory estimate", -1L, resolved.getFlattenedMemoryEstimate());
+        }
+
+        // a mutable file could change after flattening, so it can't be flattened
+        CLDRFile mutable = new CLDRFile(new SimpleXMLSource("en_GB"),
+            testInfo.getCldrFactory().makeSource("en"), testInfo.getCldrFactory().makeSource("root"));
+        assertFalse("mutable", mutable.isFrozen());
+        try {
+            mutable.flatten();
+            errln("flattening a mutable file should throw");
+        } catch (UnsupportedOperationException e) {
+            logln("expected: " + e.getMessage());
+        }
+    }
+
     public void TestConstructedBailey() {
         CLDRFile eng = CLDRConfig.getInstance().getEnglish();
 
@@ -6,7 +6,10 @@ import java.io.InputStream;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -18,9 +21,11 @@ import org.unicode.cldr.util.CLDRFile;
 import org.unicode.cldr.util.CLDRFile.DraftStatus;
 import org.unicode.cldr.util.CLDRPaths;
 import org.unicode.cldr.util.Factory;
+import org.unicode.cldr.util.LocaleIDParser;
 import org.unicode.cldr.util.SimpleFactory;
 import org.unicode.cldr.util.SimpleXMLSource;
 import org.unicode.cldr.util.SupplementalDataInfo;
+import org.unicode.cldr.util.XMLSourceSnapshot;
 
 import com.google.common.base.Objects;
 import com.google.common.collect.ImmutableMap;
@@ -182,6 +187,96 @@ public class TestCldrFactory extends TestFmwkPlus {
         assertEquals("enAnnotations == enDoubleWithAnnotations", null, differentPathValue(enAnnotations, enDoubleWithAnnotations));
     }
 
+    public void testMakeAll() {
+        Factory factory = testInfo.getCldrFactory();
+        Predicate<String> isEnglish = x -> x.equals("en") || x.startsWith("en_");
+        Set<String> expected = new TreeSet<>();
+        for (String locale : factory.getAvailable()) {
+            if (isEnglish.test(locale)) {
+                expected.add(locale);
+            }
+        }
+        Set<String> seen = new TreeSet<>();
+        for (CLDRFile file : factory.makeAll(isEnglish, true)) {
+            String locale = file.getLocaleID();
+            String parent = LocaleIDParser.getParent(locale);
+            if (expected.contains(parent)) {
+                assertTrue(locale + ": parent " + parent + " comes first", seen.contains(parent));
+            }
+            assertTrue(locale + " only once", seen.add(locale));
+            assertTrue(locale + " resolved", file.isResolved());
+            CLDRFile single = factory.make(locale, true);
+            String path = "//ldml/localeDisplayNames/territories/territory[@type=\"GB\"]";
+            assertEquals(locale, single.getStringValue(path), file.getStringValue(path));
+        }
+        assertEquals("locales", expected, seen);
+
+        // stopping early: closing stops the loading of the rest
+        try (Factory.LoadedFiles files = factory.makeAll(null, false)) {
+            for (CLDRFile file : files) {
+                assertNotNull("first file", file.getLocaleID());
+                break;
+            }
+        }
+    }
+
+    public void testSnapshot() throws Exception {
+        File mainDir = new File(CLDRPaths.MAIN_DIRECTORY);
+        List<File> sourceFiles = Collections.singletonList(new File(mainDir, "en.xml"));
+        CLDRFile enMain = testInfo.getCldrFactory().make("en", false);
+
+        File snapshotDir = Files.createTempDirectory("snapshot").toFile();
+        File snapshotFile = XMLSourceSnapshot.getSnapshotFile(snapshotDir, Arrays.asList(mainDir), "en", DraftStatus.unconfirmed);
+        try {
+            XMLSourceSnapshot.write(snapshotFile, sourceFiles, enMain);
+            CLDRFile enSnapshot = XMLSourceSnapshot.read(snapshotFile, sourceFiles);
+            assertNotNull("snapshot read", enSnapshot);
+            assertEquals("enMain == enSnapshot", null, differentPathValue(enMain, enSnapshot));
+            for (String xpath : enMain) {
+                assertEquals(xpath, enMain.getFullXPath(xpath), enSnapshot.getFullXPath(xpath));
+            }
+            assertEquals("initial comment", enMain.getInitialComment(), enSnapshot.getInitialComment());
+            assertEquals("dtd version", enMain.getDtdVersion(), enSnapshot.getDtdVersion());
+
+            // a snapshot for different source files is stale
+            List<File> otherSources = Collections.singletonList(new File(mainDir, "fr.xml"));
+            assertNull("stale snapshot", XMLSourceSnapshot.read(snapshotFile, otherSources));
+        } finally {
+            snapshotFile.delete();
+            snapshotFile.getParentFile().delete();
+            snapshotDir.delete();
+        }
+    }
+
+    public void testSnapshotDtdChange() throws Exception {
+        // copy en.xml and its DTD, keeping the relative path in the DOCTYPE
+        File tempDir = Files.createTempDirectory("snapshotDtd").toFile();
+        File mainDir = new File(tempDir, "common/main");
+        File dtdDir = new File(tempDir, "common/dtd");
+        mainDir.mkdirs();
+        dtdDir.mkdirs();
+        File enFile = new File(mainDir, "en.xml");
+        File dtdFile = new File(dtdDir, "ldml.dtd");
+        Files.copy(new File(CLDRPaths.MAIN_DIRECTORY, "en.xml").toPath(), enFile.toPath());
+        Files.copy(new File(CLDRPaths.COMMON_DIRECTORY, "dtd/ldml.dtd").toPath(), dtdFile.toPath());
+        List<File> sourceFiles = Collections.singletonList(enFile);
+        File snapshotFile = new File(tempDir, "en.snapshot");
+        try {
+            XMLSourceSnapshot.write(snapshotFile, sourceFiles, testInfo.getCldrFactory().make("en", false));
+            assertNotNull("snapshot read", XMLSourceSnapshot.read(snapshotFile, sourceFiles));
+
+            // the DTD supplies default attribute values, so changing it makes the snapshot stale
+            Files.write(dtdFile.toPath(), "\n<!-- changed -->\n".getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.APPEND);
+            assertNull("stale snapshot after DTD change", XMLSourceSnapshot.read(snapshotFile, sourceFiles));
+        } finally {
+            for (File file : Arrays.asList(snapshotFile, enFile, dtdFile, mainDir, dtdDir, mainDir.getParentFile(),
+                tempDir)) {
+                file.delete();
+            }
+        }
+    }
+
     private CLDRFile cldrFileFromString(String string) {
         byte[] b = string.getBytes(StandardCharsets.UTF_8);
         InputStream fis = new ByteArrayInputStream(b);
@@ -322,6 +322,26 @@ public class TestCoverageLevel extends TestFmwkPlus {
         assertEquals("Quick Check for any attribute", Level.MODERN, level);
     }
 
+    public void TestCoverageLevelTable() {
+        // the table must give the same levels as a direct lookup, both for the locale's paths and for others
+        String locale = "de";
+        CoverageLevel2 coverageLevel = CoverageLevel2.getInstance(SDI, locale);
+        CLDRFile file = testInfo.getCldrFactory().make(locale, true);
+        String[] others = {
+            "//ldml/localeDisplayNames/languages/language[@type=\"xyz\"]",
+            "//ldml/numbers/currencies/currency[@type=\"XYZ\"]/symbol[@alt=\"narrow\"]",
+        };
+        for (int pass = 0; pass < 2; ++pass) { // the second pass reads what the first remembered
+            for (String path : file.fullIterable()) {
+                assertEquals(path, coverageLevel.getLevel(path), SDI.getCoverageLevel(path, locale));
+            }
+            for (String path : others) {
+                assertEquals(path, coverageLevel.getLevel(path), SDI.getCoverageLevel(path, locale));
+            }
+        }
+        assertEquals("null path", coverageLevel.getLevel(null), SDI.getCoverageLevel(null, locale));
+    }
+
     public void TestCoverageCompleteness() {
         /**
          * Check that English paths are, except for known cases, at least modern coverage.
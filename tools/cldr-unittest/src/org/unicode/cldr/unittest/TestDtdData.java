@@ -278,6 +278,44 @@ public class TestDtdData  extends TestFmwk {
         return "!//" + CollectionUtilities.join(parents, "/");
     }
 
+    public void TestPathSortKeys() {
+        DtdData.DtdComparator comparator = (DtdData.DtdComparator) DtdData.getInstance(DtdType.ldml).getDtdComparator(null);
+        String[][] tests = {
+            { "//ldml/_foo", "//ldml/identity" },
+            { "//ldml/numbers/symbols/decimal", "//ldml/numbers/symbols[@numberSystem=\"latn\"]/decimal" },
+            { "//ldml/dates/calendars/calendar[@type=\"gregorian\"]/dateFormats/dateFormatLength[@type=\"full\"]",
+                "//ldml/dates/calendars/calendar[@type=\"gregorian\"]/dateFormats/dateFormatLength[@type=\"short\"]" },
+            { "//ldml/localeDisplayNames/languages/language[@type=\"en\"][@_q=\"1\"]",
+                "//ldml/localeDisplayNames/languages/language[@type=\"en\"][@_q=\"2\"]" },
+            { "//ldml/localeDisplayNames/languages", "//ldml/localeDisplayNames/languages/language[@type=\"en\"]" },
+        };
+        for (String[] test : tests) {
+            assertTrue(test[0] + " < " + test[1], comparator.compare(test[0], test[1]) < 0);
+            assertTrue(test[1] + " > " + test[0], comparator.compare(test[1], test[0]) > 0);
+        }
+
+        // a key would leave out an undeclared attribute, so such paths are compared without one
+        assertNotNull("declared attributes", comparator.getSortKey("//ldml/numbers/symbols[@numberSystem=\"latn\"]/decimal"));
+        for (String undeclared : Arrays.asList(
+            "//ldml/numbers/symbols[@numberSystem=\"latn\"][@foo=\"bar\"]/decimal", // in no DTD
+            "//ldml/numbers/symbols[@numberSystem=\"latn\"][@type=\"bar\"]/decimal")) { // not for symbols
+            assertNull("undeclared attribute " + undeclared, comparator.getSortKey(undeclared));
+            assertEquals("undeclared attribute, same path " + undeclared, 0, comparator.compare(undeclared, undeclared));
+        }
+
+        for (String locale : Arrays.asList("en", "root")) {
+            Set<String> expected = new TreeSet<String>(comparator);
+            List<String> paths = new ArrayList<String>();
+            for (String path : testInfo.getCldrFactory().make(locale, false)) {
+                expected.add(path);
+                paths.add(path);
+            }
+            Collections.shuffle(paths);
+            comparator.sort(paths);
+            assertEquals(locale + " sorted with keys", new ArrayList<String>(expected), paths);
+        }
+    }
+
     public void TestNewDtdData() {
         for (DtdType type : DtdType.values()) {
             if (type == DtdType.ldmlICU) {
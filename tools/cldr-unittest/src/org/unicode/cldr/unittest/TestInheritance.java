@@ -1,5 +1,6 @@
 package org.unicode.cldr.unittest;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -23,10 +24,13 @@ import org.unicode.cldr.util.Builder;
 import org.unicode.cldr.util.CLDRConfig;
 import org.unicode.cldr.util.CLDRFile;
 import org.unicode.cldr.util.CLDRLocale;
+import org.unicode.cldr.util.CLDRPaths;
 import org.unicode.cldr.util.ChainedMap;
 import org.unicode.cldr.util.ChainedMap.M3;
 import org.unicode.cldr.util.CldrUtility;
+import org.unicode.cldr.util.DtdType;
 import org.unicode.cldr.util.LanguageTagParser;
+import org.unicode.cldr.util.LocaleGraph;
 import org.unicode.cldr.util.LocaleIDParser;
 import org.unicode.cldr.util.PatternCache;
 import org.unicode.cldr.util.StandardCodes;
@@ -386,6 +390,38 @@ public class TestInheritance extends TestFmwk {
         }
     }
 
+    public void TestLocaleGraph() {
+        LocaleGraph graph = dataInfo.getLocaleGraph();
+        for (String loc : availableLocales) {
+            int index = graph.getIndex(loc);
+            if (index < 0) {
+                errln("Locale graph is missing " + loc);
+                continue;
+            }
+            int[] chain = graph.getParentChain(index);
+            assertEquals(loc + " chain start", index, chain[0]);
+            assertEquals(loc + " chain end", "root", graph.getLocale(chain[chain.length - 1]));
+            assertEquals(loc + " default content", defaultContents.contains(loc), graph.isDefaultContent(index));
+            int parent = graph.getParent(index);
+            if (parent >= 0) {
+                assertEquals(loc + " parent", graph.getLocale(parent), LocaleIDParser.getParent(loc));
+                assertTrue(loc + " in children of parent",
+                    graph.getChildren(graph.getLocale(parent)).contains(loc));
+            }
+        }
+        // locales not in the graph (no file in any of the directories it is built from) are computed from the string
+        String missing = "fr_ZZ";
+        for (String dataDirectory : Arrays.asList("common", "seed", "exemplars")) {
+            for (String subdirectory : DtdType.ldml.directories) {
+                File file = new File(CLDRPaths.BASE_DIRECTORY, dataDirectory + "/" + subdirectory + "/" + missing + ".xml");
+                assertFalse("no file " + file, file.exists());
+            }
+        }
+        assertEquals("not in graph", -1, graph.getIndex(missing));
+        assertEquals("parent of " + missing, "fr", LocaleIDParser.getParent(missing));
+        assertEquals("chain of " + missing, Arrays.asList(missing, "fr", "root"), LocaleIDParser.getParentChain(missing));
+    }
+
     private void verifyScriptsWithDefaultContents(LanguageTagParser ltp,
         Relation<String, String> base2scripts,
         Map<String, String> parent2default,
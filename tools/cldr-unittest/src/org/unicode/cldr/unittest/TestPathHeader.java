@@ -1,6 +1,8 @@
 package org.unicode.cldr.unittest;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -45,6 +47,8 @@ import org.unicode.cldr.util.PatternPlaceholders;
 import org.unicode.cldr.util.PatternPlaceholders.PlaceholderInfo;
 import org.unicode.cldr.util.PatternPlaceholders.PlaceholderStatus;
 import org.unicode.cldr.util.PrettyPath;
+import org.unicode.cldr.util.RegexLookup;
+import org.unicode.cldr.util.RegexLookup.LookupType;
 import org.unicode.cldr.util.StandardCodes;
 import org.unicode.cldr.util.SupplementalDataInfo;
 import org.unicode.cldr.util.SupplementalDataInfo.PluralInfo;
@@ -62,6 +66,7 @@ import com.ibm.icu.dev.util.CollectionUtilities;
 import com.ibm.icu.impl.Relation;
 import com.ibm.icu.impl.Row;
 import com.ibm.icu.impl.Row.R2;
+import com.ibm.icu.util.Output;
 
 public class TestPathHeader extends TestFmwkPlus {
     private static final DtdType DEBUG_DTD_TYPE = null; // DtdType.supplementalData;
@@ -250,6 +255,52 @@ public class TestPathHeader extends TestFmwkPlus {
         }
     }
 
+    public void TestRegexLookupTypes() {
+        // the PathHeader rules use PREFIX_TRIE_LOOKUP, which must give the same results as STANDARD
+        RegexLookup<String> standard = new RegexLookup<String>(LookupType.STANDARD)
+            .setPatternTransform(RegexLookup.RegexFinderTransformPath)
+            .loadFromFile(PathHeader.class, "data/PathHeader.txt");
+        RegexLookup<String> prefixTrie = new RegexLookup<String>(LookupType.PREFIX_TRIE_LOOKUP)
+            .setPatternTransform(RegexLookup.RegexFinderTransformPath)
+            .loadFromFile(PathHeader.class, "data/PathHeader.txt");
+        Output<String[]> expectedArgs = new Output<String[]>();
+        Output<String[]> args = new Output<String[]>();
+        Set<String> paths = new TreeSet<String>();
+        for (String path : english.fullIterable()) {
+            paths.add(path);
+        }
+        paths.add("//ldml/nothing");
+        paths.add("");
+        for (String path : paths) {
+            String expected = standard.get(path, null, expectedArgs);
+            String actual = prefixTrie.get(path, null, args);
+            assertEquals(path, expected, actual);
+            assertEquals(path, Arrays.toString(expectedArgs.value), Arrays.toString(args.value));
+        }
+    }
+
+    public void TestLiteralPrefix() {
+        String[][] tests = {
+            { "^//ldml/dates/calendars/calendar\\[@type=\"([^\"]*)\"\\]", "//ldml/dates/calendars/calendar[@type=\"" },
+            { "^abc", "abc" },
+            { "^ab+", "ab" },
+            { "^ab?", "a" },
+            { "^ab*", "a" },
+            { "^ab{2}", "a" },
+            { "^ab.c", "ab" },
+            { "^a(b|c)", "a" },
+            { "^a\\Qbc\\E", "a" },
+            { "^\\Qbc\\E", "" },
+            { "^a|b", "" },
+            { "(^a)|b", "" },
+            { "abc", "" },
+            { "//ldml/numbers", "" },
+        };
+        for (String[] test : tests) {
+            assertEquals(test[0], test[1], new RegexLookup.RegexFinder(test[0]).getLiteralPrefix());
+        }
+    }
+
     public void TestMiscPatterns() {
         String test = "//ldml/numbers/miscPatterns[@numberSystem=\"arab\"]/pattern[@type=\"atLeast\"]";
         PathHeader ph = pathHeaderFactory.fromPath(test);
@@ -1089,6 +1140,35 @@ public class TestPathHeader extends TestFmwkPlus {
 
     }
 
+    public void TestTable() throws IOException {
+        Map<String, PathHeader> expected = new HashMap<>();
+        for (String path : english.fullIterable()) {
+            PathHeader pathHeader = pathHeaderFactory.fromPath(path);
+            if (pathHeader != null) {
+                expected.put(path, pathHeader);
+            }
+        }
+        File tableFile = File.createTempFile("PathHeader", ".snapshot");
+        try {
+            pathHeaderFactory.writeTable(tableFile, english.fullIterable());
+            pathHeaderFactory.clearCache();
+            assertTrue("table loaded", PathHeader.Factory.loadTable(tableFile));
+            for (Entry<String, PathHeader> entry : expected.entrySet()) {
+                String path = entry.getKey();
+                PathHeader pathHeader = pathHeaderFactory.fromPath(path);
+                assertEquals(path, entry.getValue(), pathHeader);
+                assertEquals(path, 0, entry.getValue().compareTo(pathHeader));
+                assertEquals(path, entry.getValue().getSurveyToolStatus(), pathHeader.getSurveyToolStatus());
+                assertTrue(path, PathHeader.Factory.getCachedPaths(pathHeader.getSectionId(), pathHeader.getPageId())
+                    .contains(path));
+            }
+            Files.write(tableFile.toPath(), new byte[] { 1, 2, 3 });
+            assertFalse("damaged table", PathHeader.Factory.loadTable(tableFile));
+        } finally {
+            tableFile.delete();
+        }
+    }
+
     public void Test8414() {
         PathDescription pathDescription = new PathDescription(supplemental,
             english, null, null, PathDescription.ErrorHandling.CONTINUE);
@@ -1,17 +1,41 @@
 package org.unicode.cldr.unittest;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
+import org.unicode.cldr.test.CoverageLevel2;
 import org.unicode.cldr.util.CLDRConfig;
 import org.unicode.cldr.util.CLDRFile;
+import org.unicode.cldr.util.CLDRFile.DraftStatus;
+import org.unicode.cldr.util.CLDRPaths;
 import org.unicode.cldr.util.DtdData;
 import org.unicode.cldr.util.DtdData.AttributeValueComparator;
 import org.unicode.cldr.util.DtdType;
+import org.unicode.cldr.util.InputStreamFactory;
+import org.unicode.cldr.util.PathHeader;
+import org.unicode.cldr.util.RegexLookup;
+import org.unicode.cldr.util.RegexLookup.LookupType;
+import org.unicode.cldr.util.SimpleXMLSource;
+import org.unicode.cldr.util.SupplementalDataInfo;
+import org.unicode.cldr.util.SupplementalDataInfo.PluralType;
 import org.unicode.cldr.util.Timer;
 import org.unicode.cldr.util.XPathParts;
 
@@ -206,6 +230,332 @@ public class TestPerf extends TestFmwkPlus {
         return timer.getSeconds() / iterations;
     }
 
+    /**
+     * Resolved lookups from many threads at once, as the Survey Tool does. Logs the throughput for each thread count;
+     * with a non-blocking cache in ResolvingSource it should scale with the number of cores.
+     */
+    public void TestResolvedLookupThreads() throws Exception {
+        final CLDRFile enGB = CLDRConfig.getInstance().getCldrFactory().make("en_GB", true);
+        final int expected = resolvedLookups(enGB); // also warms the cache
+        checkScaling("ResolvedLookup", new Callable<Integer>() {
+            @Override
+            public Integer call() {
+                int total = 0;
+                for (int j = 0; j < ITERATIONS; ++j) {
+                    total += resolvedLookups(enGB);
+                }
+                return total;
+            }
+        }, expected * ITERATIONS);
+    }
+
+    private static int resolvedLookups(CLDRFile resolved) {
+        int count = 0;
+        for (String p : sortedArray) {
+            if (resolved.getSourceLocaleID(p, null) != null && resolved.getFullXPath(p) != null) {
+                ++count;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Resolved lookups on a flattened file should be much cheaper than on the ResolvingSource.
+     */
+    public void TestFlattenedLookup() {
+        CLDRFile enGB = CLDRConfig.getInstance().getCldrFactory().make("en_GB", true).freeze();
+        CLDRFile flattened = enGB.flatten();
+        int expected = resolvedLookups(enGB); // warmup
+        assertEquals("flattened lookups", expected, resolvedLookups(flattened));
+
+        Timer t = new Timer();
+        t.start();
+        for (int i = 0; i < ITERATIONS; ++i) {
+            resolvedLookups(enGB);
+        }
+        double resolvedSeconds = t.getSeconds();
+        t = new Timer();
+        t.start();
+        for (int i = 0; i < ITERATIONS; ++i) {
+            resolvedLookups(flattened);
+        }
+        double flattenedSeconds = t.getSeconds();
+        logln("Resolved: " + resolvedSeconds + "s\tFlattened: " + flattenedSeconds + "s\tFlattened bytes: "
+            + flattened.getFlattenedMemoryEstimate());
+        assertRelation("flattened lookups", true, flattenedSeconds, LEQ, resolvedSeconds);
+    }
+
+    /**
+     * Load all of common/main with the normal (validating) loader and with the fast one, checking that they give the
+     * same files.
+     */
+    public void TestFastLoad() throws IOException {
+        File[] files = new File(CLDRPaths.MAIN_DIRECTORY).listFiles();
+        Arrays.sort(files);
+        List<CLDRFile> normal = new ArrayList<>();
+        List<CLDRFile> fast = new ArrayList<>();
+        double[] seconds = new double[2];
+        for (int pass = 0; pass < 2; ++pass) {
+            List<CLDRFile> loaded = pass == 0 ? normal : fast;
+            Timer t = new Timer();
+            t.start();
+            for (File file : files) {
+                String name = file.getName();
+                if (!name.endsWith(".xml")) {
+                    continue;
+                }
+                String locale = name.substring(0, name.length() - 4);
+                try (InputStream in = InputStreamFactory.createInputStream(file)) {
+                    loaded.add(new CLDRFile(new SimpleXMLSource(locale))
+                        .loadFromInputStream(file.getCanonicalPath(), locale, in, DraftStatus.unconfirmed, pass == 1));
+                }
+            }
+            seconds[pass] = t.getSeconds();
+        }
+        logln("Files: " + normal.size() + "\tNormal: " + seconds[0] + "s\tFast: " + seconds[1] + "s");
+
+        for (int i = 0; i < normal.size(); ++i) {
+            CLDRFile expected = normal.get(i);
+            CLDRFile actual = fast.get(i);
+            String locale = expected.getLocaleID();
+            Set<String> paths = new TreeSet<String>();
+            CollectionUtilities.addAll(expected.iterator(), paths);
+            Set<String> fastPaths = new TreeSet<String>();
+            CollectionUtilities.addAll(actual.iterator(), fastPaths);
+            if (!assertEquals(locale + " paths", paths, fastPaths)) {
+                continue;
+            }
+            for (String path : paths) {
+                assertEquals(locale + " value " + path, expected.getStringValue(path), actual.getStringValue(path));
+                assertEquals(locale + " fullPath " + path, expected.getFullXPath(path), actual.getFullXPath(path));
+            }
+            assertEquals(locale + " dtdVersion", expected.getDtdVersionInfo(), actual.getDtdVersionInfo());
+        }
+    }
+
+    public void TestSupplementalSnapshot() throws IOException {
+        File directory = new File(CLDRPaths.SUPPLEMENTAL_DIRECTORY).getCanonicalFile();
+        File snapshotDir = Files.createTempDirectory("snapshot").toFile();
+        try {
+            String[] titles = { "XML", "XML + write snapshot", "Snapshot" };
+            SupplementalDataInfo[] loaded = new SupplementalDataInfo[titles.length];
+            StringBuilder times = new StringBuilder();
+            for (int pass = 0; pass < titles.length; ++pass) {
+                Timer t = new Timer();
+                t.start();
+                loaded[pass] = SupplementalDataInfo.load(directory, pass == 0 ? null : snapshotDir);
+                times.append('\t').append(titles[pass]).append(": ").append(t.getSeconds()).append('s');
+            }
+            logln("SupplementalDataInfo load" + times);
+
+            SupplementalDataInfo expected = loaded[0];
+            for (int pass = 1; pass < titles.length; ++pass) {
+                SupplementalDataInfo actual = loaded[pass];
+                assertEquals(titles[pass] + " version", expected.getCldrVersion(), actual.getCldrVersion());
+                assertEquals(titles[pass] + " likely", expected.getLikelySubtags(), actual.getLikelySubtags());
+                assertEquals(titles[pass] + " languages", expected.getLanguages(), actual.getLanguages());
+                assertEquals(titles[pass] + " plural locales", expected.getPluralLocales(), actual.getPluralLocales());
+                for (String locale : expected.getPluralLocales()) {
+                    assertEquals(titles[pass] + " plurals " + locale,
+                        expected.getPlurals(PluralType.cardinal, locale).getPluralRules().toString(),
+                        actual.getPlurals(PluralType.cardinal, locale).getPluralRules().toString());
+                }
+                logln(titles[pass] + " sections (ms): " + actual.getSectionLoadMillis());
+            }
+        } finally {
+            for (File dir : snapshotDir.listFiles()) {
+                for (File file : dir.listFiles()) {
+                    file.delete();
+                }
+                dir.delete();
+            }
+            snapshotDir.delete();
+        }
+    }
+
+    /**
+     * Compare XPathParts.getFrozenInstance against the old implementation (a static synchronized method over an
+     * unbounded map), from many threads.
+     */
+    public void TestFrozenInstanceThreads() throws Exception {
+        final Map<String, XPathParts> legacyCache = new HashMap<String, XPathParts>();
+        final Object legacyLock = new Object();
+        Callable<Integer> legacy = new Callable<Integer>() {
+            @Override
+            public Integer call() {
+                int size = 0;
+                for (int i = 0; i < ITERATIONS; ++i) {
+                    for (String p : sortedArray) {
+                        XPathParts xpp;
+                        synchronized (legacyLock) {
+                            xpp = legacyCache.get(p);
+                            if (xpp == null) {
+                                legacyCache.put(p, xpp = new XPathParts().set(p).freeze());
+                            }
+                        }
+                        size += xpp.size();
+                    }
+                }
+                return size;
+            }
+        };
+        Callable<Integer> current = new Callable<Integer>() {
+            @Override
+            public Integer call() {
+                int size = 0;
+                for (int i = 0; i < ITERATIONS; ++i) {
+                    for (String p : sortedArray) {
+                        size += XPathParts.getFrozenInstance(p).size();
+                    }
+                }
+                return size;
+            }
+        };
+        legacy.call(); // warmup
+        double[] legacyThroughput = checkScaling("LegacyFrozenInstance", legacy, elementSize * ITERATIONS);
+        double[] currentThroughput = checkScaling("FrozenInstance", current, elementSize * ITERATIONS);
+        int last = currentThroughput.length - 1;
+        logln("Multithreaded speedup over legacy: " + currentThroughput[last] / legacyThroughput[last]);
+        logln("Cache: " + XPathParts.getFrozenInstanceCacheSize() + " entries, " + XPathParts.getFrozenInstanceCacheStatistics());
+        assertRelation("FrozenInstance vs legacy", true, currentThroughput[last], GEQ, legacyThroughput[last] * 0.5);
+    }
+
+    /**
+     * CLDRFile.getNondraftNonaltXPath from many threads, on the English full paths with draft and proposed alt
+     * attributes added.
+     */
+    public void TestNondraftNonaltThreads() throws Exception {
+        CLDRFile english = CLDRConfig.getInstance().getEnglish();
+        final List<String> paths = new ArrayList<>();
+        for (String p : sortedArray) {
+            String fullPath = english.getFullXPath(p);
+            if (fullPath != null && !fullPath.contains("[@alt=")) {
+                paths.add(fullPath + "[@draft=\"contributed\"]");
+                paths.add(fullPath + "[@alt=\"variant-proposed-u1-1\"]");
+            }
+        }
+        int expected = 0;
+        for (String path : paths) {
+            expected += CLDRFile.getNondraftNonaltXPath(path).length(); // warmup
+        }
+        final int expectedLength = expected;
+        checkScaling("NondraftNonalt", new Callable<Integer>() {
+            @Override
+            public Integer call() {
+                int total = 0;
+                for (int i = 0; i < ITERATIONS; ++i) {
+                    for (String path : paths) {
+                        total += CLDRFile.getNondraftNonaltXPath(path).length();
+                    }
+                }
+                return total;
+            }
+        }, expectedLength * ITERATIONS);
+    }
+
+    public void TestNameThreads() throws Exception {
+        final CLDRFile english = CLDRConfig.getInstance().getEnglish();
+        final List<String> locales = new ArrayList<>(CLDRConfig.getInstance().getCldrFactory().getAvailable());
+        int expected = 0;
+        for (String locale : locales) {
+            expected += english.getName(locale).length(); // warmup
+        }
+        final int expectedLength = expected;
+        checkScaling("Name", new Callable<Integer>() {
+            @Override
+            public Integer call() {
+                int total = 0;
+                for (int i = 0; i < ITERATIONS; ++i) {
+                    for (String locale : locales) {
+                        total += english.getName(locale).length();
+                    }
+                }
+                return total;
+            }
+        }, expectedLength * ITERATIONS);
+    }
+
+    public void TestCoverageLevelThreads() throws Exception {
+        final List<CoverageLevel2> coverages = new ArrayList<>();
+        for (String locale : Arrays.asList("en", "de", "ja", "sr_Latn")) {
+            coverages.add(CoverageLevel2.getInstance(locale));
+        }
+        final Callable<Integer> task = new Callable<Integer>() {
+            @Override
+            public Integer call() {
+                // order-dependent, so that a level returned for the wrong path shows up
+                int hash = 0;
+                for (CoverageLevel2 coverage : coverages) {
+                    for (String path : sortedArray) {
+                        hash = hash * 31 + coverage.getLevel(path).ordinal();
+                    }
+                }
+                return hash;
+            }
+        };
+        checkScaling("CoverageLevel", task, task.call()); // also warmup
+    }
+
+    public void TestRegexLookupTypes() {
+        // the PathHeader patterns, with each kind of storage (TestPathHeader checks that they give the same results)
+        Map<LookupType, RegexLookup<String>> lookups = new EnumMap<>(LookupType.class);
+        for (LookupType type : LookupType.values()) {
+            lookups.put(type, new RegexLookup<String>(type)
+                .setPatternTransform(RegexLookup.RegexFinderTransformPath)
+                .loadFromFile(PathHeader.class, "data/PathHeader.txt"));
+        }
+        Output<String[]> args = new Output<String[]>();
+        for (Entry<LookupType, RegexLookup<String>> entry : lookups.entrySet()) {
+            RegexLookup<String> lookup = entry.getValue();
+            int found = 0;
+            Timer t = new Timer();
+            t.start();
+            for (int i = 0; i < ITERATIONS; ++i) {
+                for (String path : sortedArray) {
+                    if (lookup.get(path, null, args) != null) {
+                        ++found;
+                    }
+                }
+            }
+            t.stop();
+            logln(entry.getKey() + "\tFound: " + found / ITERATIONS + "\t" + t.toString(ITERATIONS * sortedArray.length));
+        }
+    }
+
+    /**
+     * Run the task concurrently on 1, 2, 4, ... threads (up to at least the number of cores), checking that each call
+     * returns the expected value, and log the throughput (task calls per second) and scaling for each thread count.
+     * Returns the throughputs. Fails if more threads cost more than half of the single-threaded throughput.
+     */
+    private double[] checkScaling(String title, Callable<Integer> task, int expected) throws Exception {
+        int maxThreads = Math.max(4, Runtime.getRuntime().availableProcessors());
+        List<Double> throughputs = new ArrayList<>();
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            try {
+                List<Callable<Integer>> tasks = Collections.nCopies(threads, task);
+                Timer t = new Timer();
+                t.start();
+                for (Future<Integer> result : executor.invokeAll(tasks)) {
+                    assertEquals(title, expected, result.get().intValue());
+                }
+                t.stop();
+                double throughput = threads / t.getSeconds();
+                throughputs.add(throughput);
+                logln(title + "\tThreads: " + threads + "\tCalls/sec: " + throughput
+                    + "\tScaling: " + throughput / throughputs.get(0));
+                assertRelation(title + " threads: " + threads, true, throughput, GEQ, throughputs.get(0) * 0.5);
+            } finally {
+                executor.shutdown();
+            }
+        }
+        double[] result = new double[throughputs.size()];
+        for (int i = 0; i < result.length; ++i) {
+            result[i] = throughputs.get(i);
+        }
+        return result;
+    }
+
     public void TestUnused() {
 
     }
@@ -61,6 +61,7 @@ import org.unicode.cldr.util.SupplementalDataInfo.PluralInfo.Count;
 import org.unicode.cldr.util.SupplementalDataInfo.PluralType;
 import org.unicode.cldr.util.SupplementalDataInfo.PopulationData;
 import org.unicode.cldr.util.SupplementalDataInfo.SampleList;
+import org.unicode.cldr.util.SupplementalDataInfo.Section;
 import org.unicode.cldr.util.Validity;
 import org.unicode.cldr.util.Validity.Status;
 
@@ -100,6 +101,21 @@ public class TestSupplementalInfo extends TestFmwkPlus {
         new TestSupplementalInfo().run(args);
     }
 
+    public void TestLazySections() {
+        SupplementalDataInfo fresh = SupplementalDataInfo.load(SUPPLEMENTAL.getDirectory(), null);
+        assertEquals("initially", EnumSet.of(Section.core), fresh.getSectionLoadMillis().keySet());
+
+        assertEquals("plurals", SUPPLEMENTAL.getPlurals(PluralType.ordinal, "en").getPluralRules().toString(),
+            fresh.getPlurals(PluralType.ordinal, "en").getPluralRules().toString());
+        assertEquals("after plurals", EnumSet.of(Section.core, Section.plurals), fresh.getSectionLoadMillis().keySet());
+
+        assertEquals("likely", SUPPLEMENTAL.getLikelySubtags(), fresh.getLikelySubtags());
+        assertEquals("coverage", SUPPLEMENTAL.getCoverageLevelInfo().size(), fresh.getCoverageLevelInfo().size());
+        assertEquals("skipped", SUPPLEMENTAL.getSkippedElements(), fresh.getSkippedElements());
+        assertEquals("all loaded", EnumSet.allOf(Section.class), fresh.getSectionLoadMillis().keySet());
+        logln("Load times (ms): " + fresh.getSectionLoadMillis());
+    }
+
     public void TestPluralSampleOrder() {
         HashSet<PluralInfo> seen = new HashSet<PluralInfo>();
         for (String locale : SUPPLEMENTAL.getPluralLocales()) {
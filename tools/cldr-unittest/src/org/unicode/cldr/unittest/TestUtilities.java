@@ -133,6 +133,26 @@ public class TestUtilities extends TestFmwkPlus {
         }
     }
 
+    public void TestStringIdHash() {
+        // SHA-1 IDs are stored in data files and URLs, so they must not change
+        final String path = "//ldml/localeDisplayNames/languages/language[@type=\"de\"]";
+        assertEquals("SHA1 id", 0x22f2dfbbb64442ddL, StringId.getId(path, StringId.Hash.SHA1));
+        assertEquals("default id", StringId.getId(path, StringId.HASH), StringId.getId(path));
+        assertEquals("round trip", path, StringId.getStringFromId(StringId.getId(path)));
+
+        Map<Long, String> seen = new HashMap<Long, String>();
+        for (String s : CLDRConfig.getInstance().getEnglish().fullIterable()) {
+            long id = StringId.getId(s, StringId.Hash.FAST64);
+            if (id < 0) {
+                errln("Negative id " + id + " for " + s);
+            }
+            String old = seen.put(id, s);
+            if (old != null) {
+                errln("Collision " + Long.toHexString(id) + ": " + s + ", " + old);
+            }
+        }
+    }
+
     public void TestUrlEscape() {
         Matcher byte1 = PatternCache.get("%[A-Za-z0-9]{2}").matcher("");
         Matcher byte2 = PatternCache.get("%[A-Za-z0-9]{2}%[A-Za-z0-9]{2}")
@@ -1,5 +1,6 @@
 package org.unicode.cldr.unittest;
 
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
@@ -9,9 +10,12 @@ import java.util.Set;
 import org.unicode.cldr.util.CLDRConfig;
 import org.unicode.cldr.util.CLDRFile;
 import org.unicode.cldr.util.CldrUtility;
+import org.unicode.cldr.util.PathIdTable;
+import org.unicode.cldr.util.SimpleXMLSource;
 import org.unicode.cldr.util.XMLSource;
 import org.unicode.cldr.util.XPathParts.Comments;
 
+import com.google.common.collect.ImmutableSet;
 import com.ibm.icu.dev.test.TestFmwk;
 
 public class TestXMLSource extends TestFmwk {
@@ -121,6 +125,91 @@ public class TestXMLSource extends TestFmwk {
         result.clear();
     }
 
+    public void TestPathIdTable() {
+        CLDRFile english = CLDRConfig.getInstance().getCldrFactory().make("en", false);
+        for (String path : english) {
+            int id = PathIdTable.getId(path);
+            assertEquals("id round trip", path, PathIdTable.getPath(id));
+            assertEquals("same id", id, PathIdTable.getId(path));
+        }
+    }
+
+    public void TestPrefixIterator() {
+        CLDRConfig testInfo = CLDRConfig.getInstance();
+        CLDRFile english = testInfo.getEnglish();
+        SimpleXMLSource source = new SimpleXMLSource("en");
+        for (String path : english) {
+            source.putValueAtPath(english.getFullXPath(path), english.getStringValue(path));
+        }
+        source.freeze();
+        for (String prefix : new String[] { "//ldml/numbers", "//ldml/dates/calendars/calendar[@type=\"gregorian\"]",
+            "//ldml/localeDisplayNames/languages/language[@type=\"de", "//ldml/nothing", "//" }) {
+            checkPrefix(prefix, source.iterator(), source.iterator(prefix));
+            checkPrefix(prefix, english.iterator(), english.iterator(prefix));
+        }
+
+        // a thawed copy scans its current contents
+        XMLSource thawed = source.cloneAsThawed();
+        String added = "//ldml/numbers/defaultNumberingSystem[@alt=\"test\"]";
+        thawed.putValueAtDPath(added, "latn");
+        assertTrue("added", getPaths(thawed.iterator("//ldml/numbers")).contains(added));
+        assertFalse("frozen unchanged", getPaths(source.iterator("//ldml/numbers")).contains(added));
+        thawed.removeValueAtDPath(added);
+        assertFalse("removed", getPaths(thawed.iterator("//ldml/numbers")).contains(added));
+    }
+
+    private void checkPrefix(String prefix, Iterator<String> all, Iterator<String> matching) {
+        Set<String> expected = new HashSet<String>();
+        while (all.hasNext()) {
+            String path = all.next();
+            if (path.startsWith(prefix)) {
+                expected.add(path);
+            }
+        }
+        assertEquals(prefix, expected, getPaths(matching));
+    }
+
+    private Set<String> getPaths(Iterator<String> it) {
+        Set<String> result = new HashSet<String>();
+        while (it.hasNext()) {
+            result.add(it.next());
+        }
+        return result;
+    }
+
+    public void TestValueIndex() {
+        SimpleXMLSource source = new SimpleXMLSource("xx");
+        source.putValueAtDPath("//ldml/foo", "Abc");
+        source.putValueAtDPath("//ldml/bar", "abc");
+        source.putValueAtDPath("//ldml/baz", "def");
+        assertEquals("built", ImmutableSet.of("//ldml/foo", "//ldml/bar"), getPaths(source.getPathsWithValue("abc", "").iterator()));
+
+        // changes after the index is built are reflected in it
+        source.putValueAtDPath("//ldml/baz", "ABC");
+        source.removeValueAtDPath("//ldml/foo");
+        assertEquals("changed", ImmutableSet.of("//ldml/bar", "//ldml/baz"), getPaths(source.getPathsWithValue("abc", "").iterator()));
+        assertEquals("old value", Collections.emptySet(), getPaths(source.getPathsWithValue("def", "").iterator()));
+        assertEquals("prefix", ImmutableSet.of("//ldml/baz"), getPaths(source.getPathsWithValue("abc", "//ldml/baz").iterator()));
+
+        // a thawed copy has its own index
+        XMLSource thawed = source.cloneAsThawed();
+        thawed.putValueAtDPath("//ldml/qux", "abc");
+        Set<String> result = new HashSet<String>();
+        source.getPathsWithValue("abc", "", result);
+        assertEquals("original", ImmutableSet.of("//ldml/bar", "//ldml/baz"), result);
+        result.clear();
+        thawed.getPathsWithValue("abc", "", result);
+        assertEquals("copy", ImmutableSet.of("//ldml/bar", "//ldml/baz", "//ldml/qux"), result);
+
+        // a shallow locked copy shares the original's data, and sees its changes through the original's index
+        SimpleXMLSource shallow = new SimpleXMLSource(source) {
+        };
+        assertEquals("shallow", ImmutableSet.of("//ldml/bar", "//ldml/baz"), getPaths(shallow.getPathsWithValue("abc", "").iterator()));
+        source.putValueAtDPath("//ldml/foo", "abc");
+        assertEquals("shallow after change", ImmutableSet.of("//ldml/foo", "//ldml/bar", "//ldml/baz"),
+            getPaths(shallow.getPathsWithValue("abc", "").iterator()));
+    }
+
     public void TestA() {
         CLDRConfig testInfo = CLDRConfig.getInstance();
         CLDRFile file = testInfo.getEnglish();
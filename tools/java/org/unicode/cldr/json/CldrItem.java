@@ -287,10 +287,8 @@ public class CldrItem implements Comparable<CldrItem> {
 
     @Override
     public int compareTo(CldrItem otherItem) {
-        XPathParts thisxpp = new XPathParts();
-        XPathParts otherxpp = new XPathParts();
-        thisxpp.set(untransformedPath);
-        otherxpp.set(otherItem.untransformedFullPath);
+        XPathParts thisxpp = XPathParts.getFrozenInstance(untransformedPath);
+        XPathParts otherxpp = XPathParts.getFrozenInstance(otherItem.untransformedFullPath);
         if (thisxpp.containsElement("zone") && otherxpp.containsElement("zone")) {
             String[] thisZonePieces = thisxpp.findAttributeValue("zone", "type").split("/");
             String[] otherZonePieces = otherxpp.findAttributeValue("zone", "type").split("/");
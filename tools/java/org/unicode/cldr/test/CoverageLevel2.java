@@ -88,7 +88,7 @@ public class CoverageLevel2 {
             if (!lstOK) {
                 return false;
             }
-            boolean result = super.find(item, context, info); // also sets matcher in RegexFinder
+            boolean result = super.find(item, context, info); // also sets info.value
             if (!result) {
                 return false;
             }
@@ -154,21 +154,19 @@ public class CoverageLevel2 {
         if (path == null) {
             return Level.UNDETERMINED;
         }
-        synchronized (lookup) { // synchronize on the class, since the Matchers are changed during the matching process
-            Level result;
-            if (DEBUG_LOOKUP) { // for testing
-                Output<String[]> checkItems = new Output<String[]>();
-                Output<Finder> matcherFound = new Output<Finder>();
-                List<String> failures = new ArrayList<String>();
-                result = lookup.get(path, myInfo, checkItems, matcherFound, failures);
-                for (String s : failures) {
-                    System.out.println(s);
-                }
-            } else {
-                result = lookup.get(path, myInfo, null);
+        Level result;
+        if (DEBUG_LOOKUP) { // for testing
+            Output<String[]> checkItems = new Output<String[]>();
+            Output<Finder> matcherFound = new Output<Finder>();
+            List<String> failures = new ArrayList<String>();
+            result = lookup.get(path, myInfo, checkItems, matcherFound, failures);
+            for (String s : failures) {
+                System.out.println(s);
             }
-            return result == null ? Level.OPTIONAL : result;
+        } else {
+            result = lookup.get(path, myInfo, null);
         }
+        return result == null ? Level.OPTIONAL : result;
     }
 
     public int getIntLevel(String path) {
@@ -125,7 +125,7 @@ public class OutdatedPaths {
         CLDRFile english = factory.make("en", true);
         PathHeader.Factory pathHeaders = PathHeader.getFactory(english);
         for (String s : english) {
-            long id = StringId.getId(s);
+            long id = StringId.getId(s, StringId.Hash.SHA1);
             PathHeader pathHeader = pathHeaders.fromPath(s);
             result.put(id, pathHeader);
         }
@@ -155,7 +155,7 @@ public class OutdatedPaths {
         if (data == null) {
             return false;
         }
-        long id = StringId.getId(distinguishedPath);
+        long id = StringId.getId(distinguishedPath, StringId.Hash.SHA1);
         boolean result = data.contains(id);
         if (result == false) {
             return false;
@@ -179,7 +179,7 @@ public class OutdatedPaths {
         if (data == null) {
             return false;
         }
-        long id = StringId.getId(distinguishedPath);
+        long id = StringId.getId(distinguishedPath, StringId.Hash.SHA1);
         return data.contains(id);
     }
 
@@ -201,7 +201,7 @@ public class OutdatedPaths {
      * @return true if the string is outdated
      */
     public String getPreviousEnglish(String distinguishedPath) {
-        long id = StringId.getId(distinguishedPath);
+        long id = StringId.getId(distinguishedPath, StringId.Hash.SHA1);
         return pathToPrevious.get(id);
     }
 
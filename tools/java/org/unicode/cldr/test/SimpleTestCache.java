@@ -4,8 +4,10 @@
 package org.unicode.cldr.test;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map.Entry;
+import java.util.Set;
 
 import org.unicode.cldr.test.CheckCLDR.Options;
 import org.unicode.cldr.util.CLDRConfig;
@@ -45,17 +47,16 @@ public class SimpleTestCache extends TestCache {
     }
 
     private void valueChanged(String xpath, final CLDRLocale locale) {
-        if (DEBUG) System.err.println("BundDelLoc " + locale + " @ " + xpath);
-        for (CLDRLocale sub : ((SublocaleProvider) getFactory()).subLocalesOf(locale)) {
-            valueChanged(xpath, sub);
-        }
         if (cache.asMap().isEmpty()) {
             return;
         }
+        // The locale and all the locales that inherit from it
+        Set<CLDRLocale> locales = new HashSet<>();
+        addSubLocales(xpath, locale, locales);
         // Filter the cache to only keep the items where the locale matches
         List<Options> toRemove = new ArrayList<>();
         for (Options k : cache.asMap().keySet()) {
-            if (k.getLocale().equals(locale)) {
+            if (locales.contains(k.getLocale())) {
                 toRemove.add(k);
             }
         }
@@ -71,6 +72,18 @@ public class SimpleTestCache extends TestCache {
         }
     }
 
+    /**
+     * Add the locale and its descendants. subLocalesOf gets the children from the LocaleGraph, so this doesn't
+     * compute any parents.
+     */
+    private void addSubLocales(String xpath, CLDRLocale locale, Set<CLDRLocale> locales) {
+        if (DEBUG) System.err.println("BundDelLoc " + locale + " @ " + xpath);
+        locales.add(locale);
+        for (CLDRLocale sub : ((SublocaleProvider) getFactory()).subLocalesOf(locale)) {
+            addSubLocales(xpath, sub, locales);
+        }
+    }
+
     @Override
     public String toString() {
         StringBuilder stats = new StringBuilder();
@@ -178,6 +178,7 @@ public class CLDRModify {
             if (path == null) {
                 for (String eachPath : cldrFileToFilter.fullIterable()) {
                     StringId.getHexId(eachPath);
+                    StringId.addCompatibilityId(eachPath); // for hex ids made in the SHA1 mode
                 }
                 path = StringId.getStringFromHexId(exactMatch);
                 if (path == null) {
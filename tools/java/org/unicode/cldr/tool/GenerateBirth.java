@@ -129,7 +129,7 @@ public class GenerateBirth {
             dataOut.writeUTF(fileName);
             dataOut.writeInt(newer.size());
             for (String item : newer) {
-                long id = StringId.getId(item);
+                long id = StringId.getId(item, StringId.Hash.SHA1);
                 dataOut.writeLong(id);
                 if (DEBUG) {
                     System.out.println(id + "\t" + item);
@@ -248,7 +248,7 @@ public class GenerateBirth {
                 String path = entry.getKey();
                 R3<Versions, String, String> birthCurrentPrevious = entry.getValue();
                 String previous = birthCurrentPrevious.get2();
-                long id = StringId.getId(path);
+                long id = StringId.getId(path, StringId.Hash.SHA1);
                 dataOut.writeLong(id);
                 final String previousString = previous == null ? "" : previous;
                 dataOut.writeUTF(previousString);
@@ -273,7 +273,7 @@ public class GenerateBirth {
             for (Entry<Versions, Set<String>> entry2 : birthToPaths.keyValuesSet()) {
                 Versions version = entry2.getKey();
                 for (String xpath : entry2.getValue()) {
-                    long id = StringId.getId(xpath);
+                    long id = StringId.getId(xpath, StringId.Hash.SHA1);
                     String old = sanityCheck.get(id);
                     if (old != null) {
                         throw new IllegalArgumentException("Path Collision " + xpath + ", old:" + old + ", id: " + id);
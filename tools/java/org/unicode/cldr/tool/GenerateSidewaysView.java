@@ -229,7 +229,7 @@ public class GenerateSidewaysView {
                 + "</th></tr>");
                 oldHeader = header;
             }
-            String anchorId = Long.toHexString(StringId.getId(path.getOriginalPath()));
+            String anchorId = Long.toHexString(StringId.getId(path.getOriginalPath(), StringId.Hash.SHA1));
             out.println("<tr>" +
                 "<th class='path'>" + CldrUtility.getDoubleLinkedText(anchorId, anchor) + "</th>" +
                 "<th class='path'>" + toHTML.transliterate(englishValue) + "</th>" +
@@ -282,7 +282,7 @@ public class GenerateXMB {
                     } else {
                         description = pathInfo.getDescription();
                     }
-                    long id = StringId.getId(trunkPath);
+                    long id = StringId.getId(trunkPath, StringId.Hash.SHA1);
                     if (englishValue == null) {
                         log.println(file + "\tEmpty English for " + trunkPath);
                         errors++;
@@ -870,7 +870,7 @@ public class GenerateXMB {
                     path2errors.put(path, "missing description");
                 }
                 this.path = path;
-                long id = StringId.getId(path);
+                long id = StringId.getId(path, StringId.Hash.SHA1);
                 this.id = id;
                 stringId = String.valueOf(id);
                 this.englishValue = englishValue;
@@ -16,12 +16,14 @@ import java.io.InputStream;
 import java.io.PrintWriter;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
@@ -56,8 +58,13 @@ import org.xml.sax.ext.LexicalHandler;
 import org.xml.sax.helpers.XMLReaderFactory;
 
 import com.google.common.base.Splitter;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableMap.Builder;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
 import com.ibm.icu.dev.util.CollectionUtilities;
 import com.ibm.icu.impl.Relation;
 import com.ibm.icu.impl.Utility;
@@ -104,6 +111,12 @@ public class CLDRFile implements Freezable<CLDRFile>, Iterable<String> {
      */
     private static final boolean USE_LOADING_BUFFER = true;
 
+    /**
+     * Whether loadFromInputStream uses the fast loader (see the overload with a fast parameter) by default; set with
+     * -DCLDR_FAST_LOAD=true.
+     */
+    private static final boolean FAST_LOAD = CldrUtility.getProperty("CLDR_FAST_LOAD", false);
+
     private static final boolean DEBUG = false;
 
     public static final Pattern ALT_PROPOSED_PATTERN = PatternCache.get(".*\\[@alt=\"[^\"]*proposed[^\"]*\"].*");
@@ -121,7 +134,7 @@ public class CLDRFile implements Freezable<CLDRFile>, Iterable<String> {
         "languageGroup", "likelySubtags", "metaZones", "numberingSystems", "ordinals", "plurals", "postalCodeData", "rgScope", "supplementalData", "supplementalMetadata",
         "telephoneCodeData", "windowsZones");
 
-    private Collection<String> extraPaths = null;
+    private PathIdSet extraPaths = null;
 
     private boolean locked;
     private DtdType dtdType;
@@ -301,14 +314,32 @@ public class CLDRFile implements Freezable<CLDRFile>, Iterable<String> {
      * @return
      */
     public CLDRFile loadFromInputStream(String fileName, String localeName, InputStream fis, DraftStatus minimalDraftStatus) {
+        return loadFromInputStream(fileName, localeName, fis, minimalDraftStatus, FAST_LOAD);
+    }
+
+    /**
+     * Low-level function, only normally used for testing.
+     * <p>
+     * If fast is true, the file is not validated, and the DTD isn't read: the attribute defaults and which elements
+     * have element-only content (so that whitespace there is ignorable) come from the cached DtdData instead. The
+     * parser is also reused, one per thread. The result is the same as for a valid file loaded the normal way.
+     */
+    public CLDRFile loadFromInputStream(String fileName, String localeName, InputStream fis, DraftStatus minimalDraftStatus,
+        boolean fast) {
         CLDRFile cldrFile = this;
+        XMLReader xmlReader = null;
         try {
             fis = new StripUTF8BOMInputStream(fis);
-            MyDeclHandler DEFAULT_DECLHANDLER = new MyDeclHandler(cldrFile, minimalDraftStatus);
+            MyDeclHandler DEFAULT_DECLHANDLER = new MyDeclHandler(cldrFile, minimalDraftStatus, fast);
 
             // now fill it.
 
-            XMLReader xmlReader = createXMLReader(true);
+            if (fast) {
+                xmlReader = FAST_READER.get();
+                FAST_READER.remove(); // in case this thread loads another file while parsing this one
+            } else {
+                xmlReader = createXMLReader(true);
+            }
             xmlReader.setContentHandler(DEFAULT_DECLHANDLER);
             xmlReader.setErrorHandler(DEFAULT_DECLHANDLER);
             xmlReader.setProperty("http://xml.org/sax/properties/lexical-handler", DEFAULT_DECLHANDLER);
@@ -329,6 +360,7 @@ public class CLDRFile implements Freezable<CLDRFile>, Iterable<String> {
             if (localeName == null) {
                 cldrFile.dataSource.setLocaleID(cldrFile.getLocaleIDFromIdentity());
             }
+            ValuePool.track(cldrFile.dataSource);
             return cldrFile;
         } catch (SAXParseException e) {
             // System.out.println(CLDRFile.showSAX(e));
@@ -338,9 +370,38 @@ public class CLDRFile implements Freezable<CLDRFile>, Iterable<String> {
             throw (IllegalArgumentException) new IllegalArgumentException("Can't read " + localeName).initCause(e);
         } catch (IOException e) {
             throw new ICUUncheckedIOException("Can't read " + localeName, e);
+        } finally {
+            if (fast && xmlReader != null) {
+                // drop the handler, so that the thread's reader doesn't keep the file alive
+                xmlReader.setContentHandler(null);
+                xmlReader.setErrorHandler(null);
+                try {
+                    xmlReader.setProperty("http://xml.org/sax/properties/lexical-handler", null);
+                    xmlReader.setProperty("http://xml.org/sax/properties/declaration-handler", null);
+                } catch (SAXException e) {
+                    // replaced on the next load anyway
+                }
+                FAST_READER.set(xmlReader);
+            }
         }
     }
 
+    /**
+     * Non-validating readers that don't load the DTD, for the fast loader.
+     */
+    private static final ThreadLocal<XMLReader> FAST_READER = new ThreadLocal<XMLReader>() {
+        @Override
+        protected XMLReader initialValue() {
+            XMLReader result = createXMLReader(false);
+            try {
+                result.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+            } catch (SAXException e) {
+                // not Xerces; the DTD will still be read, through the caching entity resolver
+            }
+            return result;
+        }
+    };
+
     /**
      * Clone the object. Produces unlocked version
      *
@@ -351,12 +412,43 @@ public class CLDRFile implements Freezable<CLDRFile>, Iterable<String> {
             CLDRFile result = (CLDRFile) super.clone();
             result.locked = false;
             result.dataSource = (XMLSource) result.dataSource.cloneAsThawed();
+            result.nameMemo = null;
+            result.nameMemoListener = null;
             return result;
         } catch (CloneNotSupportedException e) {
             throw new InternalError("should never happen");
         }
     }
 
+    /**
+     * Return a frozen copy of this frozen, resolved file with the value, full path and source locale of every path
+     * computed up front (see FlattenedXMLSource). Lookups are then much faster, at the cost of the memory for the
+     * table, which is given by getFlattenedMemoryEstimate(). For read-only tools that look up most of the paths in a
+     * locale.
+     *
+     * @throws UnsupportedOperationException if the file isn't frozen, since the copy wouldn't see later changes
+     */
+    public CLDRFile flatten() {
+        if (dataSource instanceof FlattenedXMLSource) {
+            return this;
+        }
+        if (!isFrozen()) {
+            throw new UnsupportedOperationException("Only frozen files can be flattened: " + getLocaleID());
+        }
+        CLDRFile result = new CLDRFile(new FlattenedXMLSource(this));
+        result.dtdType = dtdType;
+        result.dtdData = dtdData;
+        result.supplementalDirectory = supplementalDirectory;
+        return result.freeze();
+    }
+
+    /**
+     * Rough number of bytes used by a flattened file's table, or -1 if the file isn't flattened.
+     */
+    public long getFlattenedMemoryEstimate() {
+        return dataSource instanceof FlattenedXMLSource ? ((FlattenedXMLSource) dataSource).getMemoryEstimate() : -1;
+    }
+
     /**
      * Prints the contents of the file (the xpaths/values) to the console.
      *
@@ -391,8 +483,7 @@ public class CLDRFile implements Freezable<CLDRFile>, Iterable<String> {
      *            map of options for writing
      */
     public CLDRFile write(PrintWriter pw, Map<String, ?> options) {
-        Set<String> orderedSet = new TreeSet<String>(getComparator());
-        CollectionUtilities.addAll(dataSource.iterator(), orderedSet);
+        Iterator<String> ordered = iterator("", getComparator());
 
         String firstPath = null;
         String firstFullPath = null;
@@ -400,8 +491,8 @@ public class CLDRFile implements Freezable<CLDRFile>, Iterable<String> {
         DtdType dtdType = DtdType.ldml; // default
         boolean suppressInheritanceMarkers = false;
 
-        if (orderedSet.size() > 0) { // May not have any elements.
-            firstPath = (String) orderedSet.iterator().next();
+        if (ordered.hasNext()) { // May not have any elements.
+            firstPath = ordered.next();
             // Value firstValue = (Value) getXpath_value().get(firstPath);
             firstFullPath = getFullXPath(firstPath);
             parts.set(firstFullPath);
@@ -505,7 +596,7 @@ public class CLDRFile implements Freezable<CLDRFile>, Iterable<String> {
             lastFiltered = temp;
         }
 
-        for (String xpath : orderedSet) {
+        for (String xpath = firstPath; xpath != null; xpath = ordered.hasNext() ? ordered.next() : null) {
             if (skipTest != null 
                 && skipTest.test(xpath)) {
                 continue;
@@ -1246,14 +1337,35 @@ public class CLDRFile implements Freezable<CLDRFile>, Iterable<String> {
         return dataSource.iterator(pathFilter);
     }
 
+    /**
+     * Iterate over the paths starting with the prefix (all paths if null or empty), in the comparator's order, dropping
+     * any path that compares equal to an earlier one. This is not lazy: the matching paths are collected and sorted
+     * before the first is returned. With a DTD comparator (such as getComparator()), they are collected into a list
+     * and sorted by their cached sort keys (see DtdData.DtdComparator.sort), which is cheaper than a sorted set.
+     */
     public Iterator<String> iterator(String prefix, Comparator<String> comparator) {
-        Iterator<String> it = (prefix == null || prefix.length() == 0)
+        Iterator<String> paths = (prefix == null || prefix.length() == 0)
             ? dataSource.iterator()
                 : dataSource.iterator(prefix);
-            if (comparator == null) return it;
-            Set<String> orderedSet = new TreeSet<String>(comparator);
-            CollectionUtilities.addAll(it, orderedSet);
-            return orderedSet.iterator();
+        if (comparator == null) {
+            return paths;
+        }
+        if (comparator instanceof DtdData.DtdComparator) {
+            List<String> ordered = new ArrayList<String>();
+            CollectionUtilities.addAll(paths, ordered);
+            ((DtdData.DtdComparator) comparator).sort(ordered);
+            // as a sorted set would, keep only the first of paths that compare equal (the sort is stable)
+            int kept = 0;
+            for (String path : ordered) {
+                if (kept == 0 || comparator.compare(ordered.get(kept - 1), path) != 0) {
+                    ordered.set(kept++, path);
+                }
+            }
+            return ordered.subList(0, kept).iterator();
+        }
+        Set<String> orderedSet = new TreeSet<String>(comparator);
+        CollectionUtilities.addAll(paths, orderedSet);
+        return orderedSet.iterator();
     }
 
     public Iterable<String> fullIterable() {
@@ -1306,43 +1418,101 @@ public class CLDRFile implements Freezable<CLDRFile>, Iterable<String> {
         return getNondraftNonaltXPath(path1).equals(getNondraftNonaltXPath(path2));
     }
 
-    static XPathParts nondraftParts = new XPathParts(null, null);
-
+    /**
+     * Strip the draft attributes, and the alt attributes that are proposals (restoring any alt that the proposal was
+     * on, so alt="short-proposed-x" becomes alt="short"), from an xpath. Thread-safe and lock-free: the path is handled
+     * in a single scan, and a new string is only built if something is removed. Attribute order is left alone, which
+     * gives the same result as reparsing for paths in canonical order (such as those from CLDRFile); paths the scan
+     * doesn't handle (such as single-quoted values) are reparsed.
+     */
     public static String getNondraftNonaltXPath(String xpath) {
         if (xpath.indexOf("draft=\"") < 0 && xpath.indexOf("alt=\"") < 0) return xpath;
-        synchronized (nondraftParts) {
-            XPathParts parts = new XPathParts(null, null).set(xpath);
-            String restore;
-            HashSet<String> toRemove = new HashSet<String>();
-            for (int i = 0; i < parts.size(); ++i) {
-                if (parts.getAttributeCount(i) == 0) {
-                    continue;
+        StringBuilder result = null; // only built if needed
+        int copied = 0; // end of what has been copied into result
+        int len = xpath.length();
+        int i = xpath.indexOf('[');
+        while (i >= 0) {
+            // [@attribute="value"]
+            int equals = xpath.indexOf('=', i);
+            if (equals < 0 || xpath.charAt(i + 1) != '@' || equals + 1 >= len || xpath.charAt(equals + 1) != '"') {
+                return getNondraftNonaltXPathByParts(xpath);
+            }
+            int valueStart = equals + 2;
+            int valueEnd = xpath.indexOf('"', valueStart);
+            if (valueEnd < 0 || valueEnd + 1 >= len || xpath.charAt(valueEnd + 1) != ']') {
+                return getNondraftNonaltXPathByParts(xpath);
+            }
+            int attributeStart = i + 2;
+            int attributeLength = equals - attributeStart;
+            int keepEnd = -1; // if >= 0, keep the attribute, but only the value up to here
+            boolean remove = false;
+            if (attributeLength == 5 && xpath.startsWith("draft", attributeStart)) {
+                remove = true;
+            } else if (attributeLength == 3 && xpath.startsWith("alt", attributeStart)) {
+                int proposedPos = xpath.indexOf("proposed", valueStart);
+                if (proposedPos >= 0 && proposedPos + "proposed".length() <= valueEnd) {
+                    if (proposedPos > valueStart) {
+                        keepEnd = proposedPos - 1; // is of form xxx-proposedyyy
+                    } else {
+                        remove = true;
+                    }
                 }
-                Map<String, String> attributes = parts.getAttributes(i);
-                toRemove.clear();
-                restore = null;
-                for (Iterator<String> it = attributes.keySet().iterator(); it.hasNext();) {
-                    String attribute = it.next();
-                    if (attribute.equals("draft")) {
+            }
+            if (remove || keepEnd >= 0) {
+                if (result == null) {
+                    result = new StringBuilder(len);
+                }
+                if (remove) {
+                    result.append(xpath, copied, i);
+                    copied = valueEnd + 2;
+                } else {
+                    result.append(xpath, copied, keepEnd).append('"');
+                    copied = valueEnd + 1;
+                }
+            }
+            i = xpath.indexOf('[', valueEnd + 2);
+        }
+        if (result == null) {
+            return xpath;
+        }
+        return result.append(xpath, copied, len).toString();
+    }
+
+    /**
+     * The original, parsing version of getNondraftNonaltXPath, for paths that the scan doesn't handle.
+     */
+    private static String getNondraftNonaltXPathByParts(String xpath) {
+        XPathParts parts = new XPathParts(null, null).set(xpath);
+        String restore;
+        HashSet<String> toRemove = new HashSet<String>();
+        for (int i = 0; i < parts.size(); ++i) {
+            if (parts.getAttributeCount(i) == 0) {
+                continue;
+            }
+            Map<String, String> attributes = parts.getAttributes(i);
+            toRemove.clear();
+            restore = null;
+            for (Iterator<String> it = attributes.keySet().iterator(); it.hasNext();) {
+                String attribute = it.next();
+                if (attribute.equals("draft")) {
+                    toRemove.add(attribute);
+                } else if (attribute.equals("alt")) {
+                    String value = (String) attributes.get(attribute);
+                    int proposedPos = value.indexOf("proposed");
+                    if (proposedPos >= 0) {
                         toRemove.add(attribute);
-                    } else if (attribute.equals("alt")) {
-                        String value = (String) attributes.get(attribute);
-                        int proposedPos = value.indexOf("proposed");
-                        if (proposedPos >= 0) {
-                            toRemove.add(attribute);
-                            if (proposedPos > 0) {
-                                restore = value.substring(0, proposedPos - 1); // is of form xxx-proposedyyy
-                            }
+                        if (proposedPos > 0) {
+                            restore = value.substring(0, proposedPos - 1); // is of form xxx-proposedyyy
                         }
                     }
                 }
-                parts.removeAttributes(i, toRemove);
-                if (restore != null) {
-                    attributes.put("alt", restore);
-                }
             }
-            return parts.toString();
+            parts.removeAttributes(i, toRemove);
+            if (restore != null) {
+                parts.putAttributeValue(i, "alt", restore);
+            }
         }
+        return parts.toString();
     }
 
     // private static String getNondraftXPath(String xpath) {
@@ -1551,12 +1721,16 @@ public class CLDRFile implements Freezable<CLDRFile>, Iterable<String> {
         private int isSupplemental = -1;
         private int[] orderedCounter = new int[30]; // just make deep enough to handle any CLDR file.
         private String[] orderedString = new String[30]; // just make deep enough to handle any CLDR file.
+        private int[] parentPathLength = new int[30]; // length of currentFullXPath before each level was pushed
+        private StringBuilder pathBuffer = new StringBuilder(); // reused to build currentFullXPath
         private int level = 0;
         private int overrideCount = 0;
+        private final boolean fast; // no DTD from the parser: the DtdData supplies defaults and ignorable whitespace
 
-        MyDeclHandler(CLDRFile target, DraftStatus minimalDraftStatus) {
+        MyDeclHandler(CLDRFile target, DraftStatus minimalDraftStatus, boolean fast) {
             this.target = target;
             this.minimalDraftStatus = minimalDraftStatus;
+            this.fast = fast;
             // attributeOrder = new TreeMap(attributeOrdering);
         }
 
@@ -1587,34 +1761,38 @@ public class CLDRFile implements Freezable<CLDRFile>, Iterable<String> {
                         + show(attributes) + ", Content: " + lastChars);
             }
             // currentXPath += "/" + qName;
-            currentFullXPath += "/" + qName;
+            parentPathLength[level] = currentFullXPath.length();
+            pathBuffer.setLength(0);
+            pathBuffer.append(currentFullXPath).append('/').append(qName);
             // if (!isSupplemental) ldmlComparator.addElement(qName);
             if (dtdData.isOrdered(qName)) {
-                currentFullXPath += orderingAttribute();
+                pathBuffer.append("[@_q=\"").append(orderedCounter[level]++).append("\"]");
             }
-            if (attributes.getLength() > 0) {
+            List<DtdData.Attribute> defaults = fast ? getDefaultedAttributes(dtdData, qName) : Collections.<DtdData.Attribute> emptyList();
+            if (attributes.getLength() > 0 || !defaults.isEmpty()) {
                 attributeOrder.clear();
+                Set<String> tokenized = fast ? getTokenizedAttributes(dtdData, qName) : Collections.<String> emptySet();
                 for (int i = 0; i < attributes.getLength(); ++i) {
                     String attribute = attributes.getQName(i);
                     String value = attributes.getValue(i);
+                    if (tokenized.contains(attribute)) {
+                        value = normalizeTokenizedValue(value);
+                    }
 
                     // if (!isSupplemental) ldmlComparator.addAttribute(attribute); // must do BEFORE put
                     // ldmlComparator.addValue(value);
-                    // special fix to remove version
-                    // <!ATTLIST version number CDATA #REQUIRED >
-                    // <!ATTLIST version cldrVersion CDATA #FIXED "24" >
-                    if (attribute.equals("cldrVersion")
-                        && (qName.equals("version"))) {
-                        ((SimpleXMLSource) target.dataSource).setDtdVersionInfo(VersionInfo.getInstance(value));
-                    } else {
-                        putAndFixDeprecatedAttribute(qName, attribute, value);
+                    putAttribute(qName, attribute, value);
+                }
+                // what a parser reading the DTD would have added
+                for (DtdData.Attribute attribute : defaults) {
+                    if (attributes.getIndex(attribute.name) < 0) {
+                        putAttribute(qName, attribute.name, attribute.defaultValue);
                     }
                 }
                 for (Iterator<String> it = attributeOrder.keySet().iterator(); it.hasNext();) {
                     String attribute = it.next();
                     String value = attributeOrder.get(attribute);
-                    String both = "[@" + attribute + "=\"" + value + "\"]"; // TODO quote the value??
-                    currentFullXPath += both;
+                    pathBuffer.append("[@").append(attribute).append("=\"").append(value).append("\"]"); // TODO quote the value??
                     // distinguishing = key, registry, alt, and type (except for the type attribute on the elements
                     // default and mapping).
                     // if (isDistinguishing(qName, attribute)) {
@@ -1622,6 +1800,7 @@ public class CLDRFile implements Freezable<CLDRFile>, Iterable<String> {
                     // }
                 }
             }
+            currentFullXPath = pathBuffer.toString();
             if (comment != null) {
                 if (currentFullXPath.equals("//ldml") || currentFullXPath.equals("//supplementalData")) {
                     target.setInitialComment(comment);
@@ -1635,8 +1814,95 @@ public class CLDRFile implements Freezable<CLDRFile>, Iterable<String> {
             Log.logln(LOG_PROGRESS, "currentFullXPath\t" + currentFullXPath);
         }
 
-        private String orderingAttribute() {
-            return "[@_q=\"" + (orderedCounter[level]++) + "\"]";
+        private void putAttribute(String qName, String attribute, String value) {
+            // special fix to remove version
+            // <!ATTLIST version number CDATA #REQUIRED >
+            // <!ATTLIST version cldrVersion CDATA #FIXED "24" >
+            if (attribute.equals("cldrVersion")
+                && (qName.equals("version"))) {
+                ((SimpleXMLSource) target.dataSource).setDtdVersionInfo(VersionInfo.getInstance(value));
+            } else {
+                putAndFixDeprecatedAttribute(qName, attribute, value);
+            }
+        }
+
+        private static final Map<DtdType, Map<String, List<DtdData.Attribute>>> DEFAULTED_ATTRIBUTES = new ConcurrentHashMap<DtdType, Map<String, List<DtdData.Attribute>>>();
+
+        /**
+         * The attributes of the element that have a default (or fixed) value in the DTD.
+         */
+        private static List<DtdData.Attribute> getDefaultedAttributes(DtdData dtdData, String element) {
+            Map<String, List<DtdData.Attribute>> elementToDefaults = DEFAULTED_ATTRIBUTES.get(dtdData.dtdType);
+            if (elementToDefaults == null) {
+                elementToDefaults = new HashMap<String, List<DtdData.Attribute>>();
+                for (DtdData.Element e : dtdData.getElementFromName().values()) {
+                    List<DtdData.Attribute> defaults = new ArrayList<DtdData.Attribute>();
+                    for (DtdData.Attribute attribute : e.getAttributes().keySet()) {
+                        if (attribute.defaultValue != null) {
+                            defaults.add(attribute);
+                        }
+                    }
+                    if (!defaults.isEmpty()) {
+                        elementToDefaults.put(e.getName(), defaults);
+                    }
+                }
+                DEFAULTED_ATTRIBUTES.put(dtdData.dtdType, elementToDefaults);
+            }
+            List<DtdData.Attribute> result = elementToDefaults.get(element);
+            return result == null ? Collections.<DtdData.Attribute> emptyList() : result;
+        }
+
+        private static final Map<DtdType, Map<String, Set<String>>> TOKENIZED_ATTRIBUTES = new ConcurrentHashMap<DtdType, Map<String, Set<String>>>();
+
+        /**
+         * The attributes of the element that the DTD declares with a type other than CDATA. A validating parser
+         * normalizes their whitespace further (see normalizeTokenizedValue); the fast loader's parser treats every
+         * attribute as CDATA.
+         */
+        private static Set<String> getTokenizedAttributes(DtdData dtdData, String element) {
+            Map<String, Set<String>> elementToTokenized = TOKENIZED_ATTRIBUTES.get(dtdData.dtdType);
+            if (elementToTokenized == null) {
+                elementToTokenized = new HashMap<String, Set<String>>();
+                for (DtdData.Element e : dtdData.getElementFromName().values()) {
+                    Set<String> tokenized = new HashSet<String>();
+                    for (DtdData.Attribute attribute : e.getAttributes().keySet()) {
+                        if (attribute.type != DtdData.AttributeType.CDATA) {
+                            tokenized.add(attribute.name);
+                        }
+                    }
+                    if (!tokenized.isEmpty()) {
+                        elementToTokenized.put(e.getName(), tokenized);
+                    }
+                }
+                TOKENIZED_ATTRIBUTES.put(dtdData.dtdType, elementToTokenized);
+            }
+            Set<String> result = elementToTokenized.get(element);
+            return result == null ? Collections.<String> emptySet() : result;
+        }
+
+        /**
+         * Normalize a non-CDATA attribute value as in XML 1.0 section 3.3.3: drop leading and trailing spaces, and
+         * replace each run of spaces by a single space. (The parser has already turned other whitespace into spaces.)
+         */
+        private static String normalizeTokenizedValue(String value) {
+            if (value.indexOf(' ') < 0) {
+                return value;
+            }
+            StringBuilder result = new StringBuilder(value.length());
+            boolean pendingSpace = false;
+            for (int i = 0; i < value.length(); ++i) {
+                char ch = value.charAt(i);
+                if (ch == ' ') {
+                    pendingSpace = result.length() > 0;
+                } else {
+                    if (pendingSpace) {
+                        result.append(' ');
+                        pendingSpace = false;
+                    }
+                    result.append(ch);
+                }
+            }
+            return result.length() == value.length() ? value : result.toString();
         }
 
         private void putAndFixDeprecatedAttribute(String element, String attribute, String value) {
@@ -1698,7 +1964,7 @@ public class CLDRFile implements Freezable<CLDRFile>, Iterable<String> {
                     }
                 }
             }
-            value = trimWhitespaceSpecial(value);
+            value = ValuePool.intern(trimWhitespaceSpecial(value));
             target.add(fullXPath, value);
         }
 
@@ -1752,7 +2018,7 @@ public class CLDRFile implements Freezable<CLDRFile>, Iterable<String> {
                 }
             }
             // currentXPath = stripAfter(currentXPath, qName);
-            currentFullXPath = stripAfter(currentFullXPath, qName);
+            currentFullXPath = currentFullXPath.substring(0, parentPathLength[level + 1]);
             justPopped = true;
         }
 
@@ -1787,51 +2053,6 @@ public class CLDRFile implements Freezable<CLDRFile>, Iterable<String> {
             overrideCount += 1;
         }
 
-        private static String stripAfter(String input, String qName) {
-            int pos = findLastSlash(input);
-            if (qName != null) {
-                // assert input.substring(pos+1).startsWith(qName);
-                if (!input.substring(pos + 1).startsWith(qName)) {
-                    throw new IllegalArgumentException("Internal Error: should never get here.");
-                }
-            }
-            return input.substring(0, pos);
-        }
-
-        private static int findLastSlash(String input) {
-            int braceStack = 0;
-            char inQuote = 0;
-            for (int i = input.length() - 1; i >= 0; --i) {
-                char ch = input.charAt(i);
-                switch (ch) {
-                case '\'':
-                case '"':
-                    if (inQuote == 0) {
-                        inQuote = ch;
-                    } else if (inQuote == ch) {
-                        inQuote = 0; // come out of quote
-                    }
-                    break;
-                case '/':
-                    if (inQuote == 0 && braceStack == 0) {
-                        return i;
-                    }
-                    break;
-                case '[':
-                    if (inQuote == 0) {
-                        --braceStack;
-                    }
-                    break;
-                case ']':
-                    if (inQuote == 0) {
-                        ++braceStack;
-                    }
-                    break;
-                }
-            }
-            return -1;
-        }
-
         // SAX items we need to catch
 
         public void startElement(
@@ -1847,6 +2068,10 @@ public class CLDRFile implements Freezable<CLDRFile>, Iterable<String> {
                 );
             try {
                 if (isSupplemental < 0) { // set by first element
+                    if (dtdData == null) { // no DOCTYPE reported, eg by the fast loader's parser
+                        target.dtdType = DtdType.valueOf(qName);
+                        target.dtdData = dtdData = DtdData.getInstance(target.dtdType);
+                    }
                     attributeOrder = new TreeMap<String, String>(
                         // HACK for ldmlIcu
                         dtdData.dtdType == DtdType.ldml
@@ -1887,6 +2112,11 @@ public class CLDRFile implements Freezable<CLDRFile>, Iterable<String> {
 
         public void characters(char[] ch, int start, int length)
             throws SAXException {
+            if (fast && level > 0 && isElementOnly(orderedString[level]) && isWhitespace(ch, start, length)) {
+                // a parser reading the DTD would have reported this as ignorable
+                ignorableWhitespace(ch, start, length);
+                return;
+            }
             try {
                 String value = new String(ch, start, length);
                 Log.logln(LOG_PROGRESS, "characters:\t" + value);
@@ -1902,6 +2132,20 @@ public class CLDRFile implements Freezable<CLDRFile>, Iterable<String> {
             }
         }
 
+        private static boolean isWhitespace(char[] ch, int start, int length) {
+            for (int i = start; i < start + length; ++i) {
+                if (!whitespace.contains(ch[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean isElementOnly(String element) {
+            DtdData.Element e = dtdData.getElementFromName().get(element);
+            return e != null && (e.getType() == DtdData.ElementType.CHILDREN || e.getType() == DtdData.ElementType.EMPTY);
+        }
+
         public void startDTD(String name, String publicId, String systemId) throws SAXException {
             Log.logln(LOG_PROGRESS, "startDTD name: " + name
                 + ", publicId: " + publicId
@@ -2312,7 +2556,40 @@ public class CLDRFile implements Freezable<CLDRFile>, Iterable<String> {
         return -1;
     }
 
-    transient LanguageTagParser lparser = new LanguageTagParser();
+    /**
+     * Maximum number of composed names remembered per file; the memo is simply cleared when it fills.
+     */
+    private static final int NAME_MEMO_LIMIT = 10000;
+
+    /**
+     * Composed locale names, keyed by the getName arguments. Only used on frozen files, and dropped (by the listener)
+     * whenever a localeDisplayNames path changes in the underlying sources.
+     */
+    private transient volatile ConcurrentHashMap<String, String> nameMemo;
+    private transient XMLSource.Listener nameMemoListener; // strong reference, since the source only holds it weakly
+
+    private ConcurrentHashMap<String, String> getNameMemo() {
+        ConcurrentHashMap<String, String> memo = nameMemo;
+        if (memo == null) {
+            synchronized (this) {
+                if (nameMemoListener == null) {
+                    nameMemoListener = new XMLSource.Listener() {
+                        @Override
+                        public void valueChanged(String xpath, XMLSource source) {
+                            if (xpath.startsWith("//ldml/localeDisplayNames") || xpath.contains("/alias")) {
+                                nameMemo = null;
+                            }
+                        }
+                    };
+                    dataSource.addListener(nameMemoListener);
+                }
+                nameMemo = memo = new ConcurrentHashMap<String, String>();
+            }
+        } else if (memo.size() >= NAME_MEMO_LIMIT) {
+            memo.clear();
+        }
+        return memo;
+    }
 
     /**
      * Returns the name of the given bcp47 identifier. Note that extensions must
@@ -2321,11 +2598,11 @@ public class CLDRFile implements Freezable<CLDRFile>, Iterable<String> {
      * @param localeOrTZID
      * @return
      */
-    public synchronized String getName(String localeOrTZID) {
+    public String getName(String localeOrTZID) {
         return getName(localeOrTZID, false);
     }
 
-    public synchronized String getName(String localeOrTZID, boolean onlyConstructCompound,
+    public String getName(String localeOrTZID, boolean onlyConstructCompound,
         String localeKeyTypePattern, String localePattern, String localeSeparator) {
         return getName(localeOrTZID, onlyConstructCompound,
             localeKeyTypePattern, localePattern, localeSeparator, null);
@@ -2342,7 +2619,31 @@ public class CLDRFile implements Freezable<CLDRFile>, Iterable<String> {
      * @param localeSeparator the list separator for secondary subtags
      * @return
      */
-    public synchronized String getName(String localeOrTZID, boolean onlyConstructCompound,
+    public String getName(String localeOrTZID, boolean onlyConstructCompound,
+        String localeKeyTypePattern, String localePattern, String localeSeparator,
+        Transform<String, String> altPicker) {
+
+        // other altPickers might not always give the same answer, so aren't memoized
+        if (!locked || altPicker != null && altPicker != SHORT_ALTS) {
+            return composeName(localeOrTZID, onlyConstructCompound, localeKeyTypePattern, localePattern,
+                localeSeparator, altPicker);
+        }
+        // get the memo first, so that if it is dropped while we compute, the result goes into the discarded one
+        ConcurrentHashMap<String, String> memo = getNameMemo();
+        String key = localeOrTZID + '\uFFFF' + (onlyConstructCompound ? 'C' : '-') + (altPicker == null ? '-' : 'S')
+            + localeKeyTypePattern + '\uFFFF' + localePattern + '\uFFFF' + localeSeparator;
+        String result = memo.get(key);
+        if (result == null) {
+            result = composeName(localeOrTZID, onlyConstructCompound, localeKeyTypePattern, localePattern,
+                localeSeparator, altPicker);
+            if (result != null) {
+                memo.put(key, result);
+            }
+        }
+        return result;
+    }
+
+    private String composeName(String localeOrTZID, boolean onlyConstructCompound,
         String localeKeyTypePattern, String localePattern, String localeSeparator,
         Transform<String, String> altPicker) {
 
@@ -2358,7 +2659,7 @@ public class CLDRFile implements Freezable<CLDRFile>, Iterable<String> {
             name = name.replace('(', '[').replace(')', ']').replace('（', '［').replace('）', '］');
             return name;
         }
-        lparser.set(localeOrTZID);
+        LanguageTagParser lparser = new LanguageTagParser().set(localeOrTZID);
         String original;
 
         // we need to check for prefixes, for lang+script or lang+country
@@ -2437,7 +2738,7 @@ public class CLDRFile implements Freezable<CLDRFile>, Iterable<String> {
      * @param onlyConstructCompound
      * @return
      */
-    public synchronized String getName(String localeOrTZID, boolean onlyConstructCompound) {
+    public String getName(String localeOrTZID, boolean onlyConstructCompound) {
         return getName(localeOrTZID, onlyConstructCompound, null);
     }
 
@@ -2459,7 +2760,7 @@ public class CLDRFile implements Freezable<CLDRFile>, Iterable<String> {
      * instead of "English (United Kingdom)"
      * @return
      */
-    public synchronized String getName(String localeOrTZID,
+    public String getName(String localeOrTZID,
         boolean onlyConstructCompound,
         Transform<String, String> altPicker) {
         return getName(localeOrTZID, onlyConstructCompound,
@@ -2828,31 +3129,83 @@ public class CLDRFile implements Freezable<CLDRFile>, Iterable<String> {
     // private static Set atomicElements = Collections.unmodifiableSet(new HashSet(Arrays.asList(new
     // String[]{"collation", "segmentation"})));
 
+    /**
+     * Size, hit rate, evictions, and approximate retained memory of the getDistinguishingXPath cache.
+     */
     public static final String distinguishedXPathStats() {
         return DistinguishedXPath.stats();
     }
 
+    /**
+     * Hit, miss, and eviction counts for the getDistinguishingXPath cache.
+     */
+    public static CacheStats getDistinguishedXPathCacheStatistics() {
+        return DistinguishedXPath.cache.stats();
+    }
+
     private static class DistinguishedXPath {
+        // rough sizes, for the memory estimate
+        private static final int ENTRY_BYTES = 80; // cache entry plus the DistinguishedPaths
+        private static final int STRING_BYTES = 40;
 
-        public static final String stats() {
-            return "distinguishingMap:" + distinguishingMap.size() + " " +
-                "normalizedPathMap:" + normalizedPathMap.size();
+        /**
+         * Maximum number of xpaths whose distinguished form is cached; set with -DDISTINGUISHED_XPATH_CACHE_SIZE=...
+         */
+        private static final int CACHE_SIZE = Integer.parseInt(CldrUtility.getProperty("DISTINGUISHED_XPATH_CACHE_SIZE",
+            "200000"));
+
+        /**
+         * The distinguished and normalized forms of a path are cached together, so they can't be evicted separately.
+         */
+        private static final class DistinguishedPaths {
+            final String distinguished;
+            final String normalized; // null where the same as the original path
+
+            DistinguishedPaths(String distinguished, String normalized) {
+                this.distinguished = distinguished;
+                this.normalized = normalized;
+            }
         }
 
-        private static Map<String, String> distinguishingMap = new ConcurrentHashMap<String, String>();
-        private static Map<String, String> normalizedPathMap = new ConcurrentHashMap<String, String>();
-        // private static XPathParts distinguishingParts = new XPathParts(getAttributeOrdering(), null);
-        static {
-            distinguishingMap.put("", ""); // seed this to make the code simpler
+        private static final Cache<String, DistinguishedPaths> cache = CacheBuilder.newBuilder()
+            .maximumSize(CACHE_SIZE)
+            .recordStats()
+            .build();
+
+        /**
+         * So that equal paths (keys and results, and across files) share one String.
+         */
+        private static final Interner<String> interner = Interners.newWeakInterner();
+
+        public static final String stats() {
+            CacheStats stats = cache.stats();
+            Map<String, Boolean> seen = new IdentityHashMap<String, Boolean>();
+            long bytes = 0;
+            for (Entry<String, DistinguishedPaths> entry : cache.asMap().entrySet()) {
+                bytes += ENTRY_BYTES;
+                DistinguishedPaths paths = entry.getValue();
+                for (String s : Arrays.asList(entry.getKey(), paths.distinguished, paths.normalized)) {
+                    if (s != null && seen.put(s, Boolean.TRUE) == null) {
+                        bytes += STRING_BYTES + 2L * s.length();
+                    }
+                }
+            }
+            return "distinguishedXPath size:" + cache.size() + "/" + CACHE_SIZE
+                + " hitRate:" + String.format(Locale.ROOT, "%.3f", stats.hitRate())
+                + " evictions:" + stats.evictionCount()
+                + " retained:~" + (bytes >> 10) + "KB";
         }
 
         public static String getDistinguishingXPath(String xpath, String[] normalizedPath, boolean nonInheriting) {
-            //     synchronized (distinguishingMap) {
-            String result = (String) distinguishingMap.get(xpath);
-            if (result == null) {
-                if (xpath.equals("//ldml/collations/collation[@type=\"standard\"][@visibility=\"external\"][@alt=\"proposed\"][@draft=\"unconfirmed\"]/cr")) {
-                    int debug = 0;
+            if (xpath.isEmpty()) {
+                if (normalizedPath != null) {
+                    normalizedPath[0] = xpath;
                 }
+                return xpath;
+            }
+            DistinguishedPaths cached = cache.getIfPresent(xpath);
+            if (cached == null) {
+                String normalized = null;
                 XPathParts distinguishingParts = new XPathParts(getAttributeOrdering(), null);
                 distinguishingParts.set(xpath);
                 if (distinguishingParts.getDtdData() == null) {
@@ -2915,7 +3268,7 @@ public class CLDRFile implements Freezable<CLDRFile>, Iterable<String> {
                     }
                     String newXPath = distinguishingParts.toString();
                     if (!newXPath.equals(xpath)) {
-                        normalizedPathMap.put(xpath, newXPath); // store differences
+                        normalized = newXPath; // store differences
                     }
                 }
 
@@ -2934,19 +3287,17 @@ public class CLDRFile implements Freezable<CLDRFile>, Iterable<String> {
                     distinguishingParts.removeAttributes(i, toRemove);
                 }
 
-                result = distinguishingParts.toString();
-                if (result.equals(xpath)) { // don't save the copy if we don't have to.
-                    result = xpath;
-                }
-                distinguishingMap.put(xpath, result);
+                String key = interner.intern(xpath);
+                String result = distinguishingParts.toString();
+                // don't save the copy if we don't have to.
+                result = result.equals(key) ? key : interner.intern(result);
+                cached = new DistinguishedPaths(result, normalized == null ? null : interner.intern(normalized));
+                cache.put(key, cached);
             }
             if (normalizedPath != null) {
-                normalizedPath[0] = (String) normalizedPathMap.get(xpath);
-                if (normalizedPath[0] == null) {
-                    normalizedPath[0] = xpath;
-                }
+                normalizedPath[0] = cached.normalized != null ? cached.normalized : xpath;
             }
-            return result;
+            return cached.distinguished;
             //      }
         }
 
@@ -3276,37 +3627,17 @@ public class CLDRFile implements Freezable<CLDRFile>, Iterable<String> {
     /**
      * Returns the extra paths, skipping those that are already represented in the locale.
      *
-     * @return
+     * @return a new set, which the caller may modify
      */
     public Collection<String> getExtraPaths() {
-        Set<String> toAddTo = new HashSet<String>();
-
-        // reverse the order because we're hitting some strange behavior
-
-        toAddTo.addAll(getRawExtraPaths());
+        BitSet ids = getSharedExtraPaths().getIds();
         for (String path : this) {
-            toAddTo.remove(path);
-        }
-
-        //        showStars(getLocaleID() + " getExtraPaths", toAddTo);
-        //        for (String path : getRawExtraPaths()) {
-        //            // don't use getStringValue, since it recurses.
-        //            if (!dataSource.hasValueAtDPath(path)) {
-        //                toAddTo.add(path);
-        //            } else {
-        //                if (path.contains("compoundUnit")) {
-        //                    for (String path2 : this) {
-        //                        if (path2.equals(path)) {
-        //                            System.out.println("\t\t" + path);
-        //                        }
-        //                    }
-        //                    System.out.println();
-        //                }
-        //            }
-        //
-        //        }
-        //        showStars(getLocaleID() + " getExtraPaths", toAddTo);
-        return toAddTo;
+            int id = PathIdTable.getExistingId(path);
+            if (id >= 0) {
+                ids.clear(id);
+            }
+        }
+        return new HashSet<String>(new PathIdSet(ids));
     }
 
     /**
@@ -3329,11 +3660,30 @@ public class CLDRFile implements Freezable<CLDRFile>, Iterable<String> {
     /**
      * Returns the raw extra paths, irrespective of what paths are already represented in the locale.
      *
-     * @return
+     * @return an immutable collection, shared with other files that have the same extra paths
      */
     public Collection<String> getRawExtraPaths() {
+        return getSharedExtraPaths();
+    }
+
+    /**
+     * Maximum number of distinct sets of extra paths kept; set with -DEXTRA_PATH_CACHE_SIZE=...
+     */
+    private static final int EXTRA_PATH_CACHE_SIZE = Integer.parseInt(CldrUtility.getProperty("EXTRA_PATH_CACHE_SIZE",
+        "1000"));
+
+    /**
+     * The extra paths only depend on the supplemental data, the plural categories and day periods of the locale, and
+     * which count="other" paths are in the file; so files with the same inputs (such as most resolved files) share one
+     * immutable set.
+     */
+    private static final Cache<List<Object>, PathIdSet> extraPathCache = CacheBuilder.newBuilder()
+        .maximumSize(EXTRA_PATH_CACHE_SIZE)
+        .build();
+
+    private PathIdSet getSharedExtraPaths() {
         if (extraPaths == null) {
-            extraPaths = Collections.unmodifiableCollection(getRawExtraPathsPrivate(new HashSet<String>()));
+            extraPaths = computeSharedExtraPaths();
             if (DEBUG) {
                 System.out.println(getLocaleID() + "\textras: " + extraPaths.size());
             }
@@ -3341,36 +3691,55 @@ public class CLDRFile implements Freezable<CLDRFile>, Iterable<String> {
         return extraPaths;
     }
 
-    private Collection<String> getRawExtraPathsPrivate(Collection<String> toAddTo) {
+    private PathIdSet computeSharedExtraPaths() {
         SupplementalDataInfo supplementalData = CLDRConfig.getInstance().getSupplementalDataInfo();
         // SupplementalDataInfo.getInstance(getSupplementalDirectory());
-        // units
-        PluralInfo plurals = supplementalData.getPlurals(PluralType.cardinal, getLocaleID());
+        String locale = getLocaleID();
+        PluralInfo plurals = supplementalData.getPlurals(PluralType.cardinal, locale);
         if (plurals == null && DEBUG) {
-            System.err.println("No " + PluralType.cardinal + "  plurals for " + getLocaleID() + " in " + supplementalData.getDirectory().getAbsolutePath());
-        }
-        Set<Count> pluralCounts = null;
-        if (plurals != null) {
-            pluralCounts = plurals.getCounts();
-            if (pluralCounts.size() != 1) {
-                // we get all the root paths with count
-                addPluralCounts(toAddTo, pluralCounts, this);
-                //            addPluralCounts(toAddTo, pluralCounts, getRootCountOther());
-                if (false) {
-                    showStars(getLocaleID() + " toAddTo", toAddTo);
+            System.err.println("No " + PluralType.cardinal + "  plurals for " + locale + " in " + supplementalData.getDirectory().getAbsolutePath());
+        }
+        Set<Count> pluralCounts = plurals == null ? null : plurals.getCounts();
+        BitSet otherCountPaths = new BitSet();
+        if (pluralCounts != null && pluralCounts.size() != 1) {
+            // we get all the root paths with count
+            for (String path : this) {
+                if (path.contains("[@count=\"other\"]")) {
+                    otherCountPaths.set(PathIdTable.getId(path));
                 }
             }
         }
+        DayPeriodInfo dayPeriodInfo = supplementalData.getDayPeriods(DayPeriodInfo.Type.format, locale);
+        Set<DayPeriod> dayPeriods = null;
+        if (dayPeriodInfo != null) {
+            dayPeriods = new LinkedHashSet<DayPeriod>(dayPeriodInfo.getPeriods());
+            dayPeriods.add(DayPeriod.am);
+            dayPeriods.add(DayPeriod.pm);
+        }
+
+        List<Object> key = Arrays.<Object> asList(supplementalData, pluralCounts, dayPeriods, otherCountPaths);
+        PathIdSet result = extraPathCache.getIfPresent(key);
+        if (result == null) {
+            // if two threads miss at once, both compute it; the sets are equal
+            result = PathIdSet.of(getRawExtraPathsPrivate(new HashSet<String>(), supplementalData, pluralCounts,
+                new PathIdSet(otherCountPaths), dayPeriods));
+            extraPathCache.put(key, result);
+        }
+        return result;
+    }
+
+    private static Collection<String> getRawExtraPathsPrivate(Collection<String> toAddTo,
+        SupplementalDataInfo supplementalData, Set<Count> pluralCounts, Iterable<String> otherCountPaths,
+        Set<DayPeriod> dayPeriods) {
+        // units
+        if (pluralCounts != null && pluralCounts.size() != 1) {
+            addPluralCounts(toAddTo, pluralCounts, otherCountPaths);
+        }
         // dayPeriods
-        String locale = getLocaleID();
-        DayPeriodInfo dayPeriods = supplementalData.getDayPeriods(DayPeriodInfo.Type.format, locale);
         if (dayPeriods != null) {
-            LinkedHashSet<DayPeriod> items = new LinkedHashSet<DayPeriod>(dayPeriods.getPeriods());
-            items.add(DayPeriod.am);
-            items.add(DayPeriod.pm);
             for (String context : new String[] { "format", "stand-alone" }) {
                 for (String width : new String[] { "narrow", "abbreviated", "wide" }) {
-                    for (DayPeriod dayPeriod : items) {
+                    for (DayPeriod dayPeriod : dayPeriods) {
                         // ldml/dates/calendars/calendar[@type="gregorian"]/dayPeriods/dayPeriodContext[@type="format"]/dayPeriodWidth[@type="wide"]/dayPeriod[@type="am"]
                         toAddTo.add("//ldml/dates/calendars/calendar[@type=\"gregorian\"]/dayPeriods/" +
                             "dayPeriodContext[@type=\"" + context
@@ -3436,7 +3805,7 @@ public class CLDRFile implements Freezable<CLDRFile>, Iterable<String> {
         }
     }
 
-    private void addPluralCounts(Collection<String> toAddTo,
+    private static void addPluralCounts(Collection<String> toAddTo,
         final Set<Count> pluralCounts,
         Iterable<String> file) {
         for (String path : file) {
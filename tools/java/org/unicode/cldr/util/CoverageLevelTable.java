@@ -0,0 +1,102 @@
+package org.unicode.cldr.util;
+
+import org.unicode.cldr.test.CoverageLevel2;
+
+/**
+ * Coverage levels for one locale, filled in path by path as they are looked up: the first lookup of a path goes to
+ * the CoverageLevel2, and the level is stored as one byte in an open-addressing table keyed by the path, so the table
+ * only grows with the paths actually looked up for the locale.
+ * <p>
+ * Thread-safe: reads don't lock. Additions are made under the table's lock, and the arrays are only replaced (when
+ * the table grows) by fully filled copies. An entry's level is written before its key, and a racing reader that sees
+ * the key without the level (0) just does the lookup itself.
+ */
+final class CoverageLevelTable {
+    private static final Level[] LEVELS = Level.values();
+    private static final int INITIAL_CAPACITY = 256; // power of 2
+
+    private static final class Entries {
+        final String[] paths; // null if empty
+        final byte[] levels; // Level ordinal + 1, or 0 if not visible yet
+
+        int size;
+
+        Entries(int capacity) {
+            paths = new String[capacity];
+            levels = new byte[capacity];
+        }
+    }
+
+    private final CoverageLevel2 coverageLevel;
+    private volatile Entries entries = new Entries(INITIAL_CAPACITY);
+
+    CoverageLevelTable(CoverageLevel2 coverageLevel) {
+        this.coverageLevel = coverageLevel;
+    }
+
+    Level getLevel(String path) {
+        if (path == null) {
+            return coverageLevel.getLevel(path);
+        }
+        Entries current = entries;
+        int mask = current.paths.length - 1;
+        for (int slot = hash(path) & mask;; slot = (slot + 1) & mask) {
+            String found = current.paths[slot];
+            if (found == null) {
+                break;
+            }
+            if (found.equals(path)) {
+                int code = current.levels[slot];
+                if (code != 0) {
+                    return LEVELS[code - 1];
+                }
+                break;
+            }
+        }
+        Level result = coverageLevel.getLevel(path);
+        add(path, result);
+        return result;
+    }
+
+    private synchronized void add(String path, Level level) {
+        Entries current = entries;
+        if (2 * (current.size + 1) > current.paths.length) {
+            Entries larger = new Entries(current.paths.length * 2);
+            for (int i = 0; i < current.paths.length; ++i) {
+                if (current.paths[i] != null) {
+                    put(larger, current.paths[i], current.levels[i]);
+                }
+            }
+            entries = current = larger;
+        }
+        put(current, path, (byte) (level.ordinal() + 1));
+    }
+
+    private static void put(Entries entries, String path, byte code) {
+        int mask = entries.paths.length - 1;
+        for (int slot = hash(path) & mask;; slot = (slot + 1) & mask) {
+            String found = entries.paths[slot];
+            if (found == null) {
+                entries.levels[slot] = code;
+                entries.paths[slot] = path;
+                ++entries.size;
+                return;
+            }
+            if (found.equals(path)) {
+                return; // added by another thread that missed at the same time
+            }
+        }
+    }
+
+    private static int hash(String path) {
+        int h = path.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Number of paths whose level has been stored.
+     */
+    int size() {
+        return entries.size;
+    }
+}
@@ -23,6 +23,8 @@ import java.util.regex.Pattern;
 
 import com.google.common.base.CharMatcher;
 import com.google.common.base.Splitter;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSet.Builder;
 import com.google.common.collect.Multimap;
@@ -727,9 +729,79 @@ public class DtdData extends XMLFileReader.SimpleHandler {
         return dtdComparator;
     }
 
-    private class DtdComparator implements Comparator<String> {
+    /**
+     * Maximum number of path sort keys kept per DtdData; set with -DDTD_SORT_KEY_CACHE_SIZE=...
+     */
+    private static final int SORT_KEY_CACHE_SIZE = Integer.parseInt(CldrUtility.getProperty("DTD_SORT_KEY_CACHE_SIZE", "200000"));
+
+    /**
+     * Compares paths in DTD order. Each path is turned once into a PathSortKey, which is cached, so comparing two
+     * paths doesn't reparse them or look up elements and attributes. To sort many paths, use sort(), which gets each
+     * key once rather than on every comparison.
+     */
+    public class DtdComparator implements Comparator<String> {
+        private final Cache<String, PathSortKey> sortKeys = CacheBuilder.newBuilder()
+            .maximumSize(SORT_KEY_CACHE_SIZE)
+            .concurrencyLevel(16)
+            .build();
+
+        private DtdComparator() {
+        }
+
         @Override
         public int compare(String path1, String path2) {
+            PathSortKey a = getSortKey(path1);
+            PathSortKey b = getSortKey(path2);
+            if (a == null || b == null) {
+                return compareParts(path1, path2);
+            }
+            return a.compareTo(b);
+        }
+
+        /**
+         * Returns the sort key for the path, or null if the path has an element that isn't in the DTD, or an
+         * attribute that the DTD doesn't declare for its element. Keys for the same DtdData can be compared
+         * directly; the result is the same as compare() on the paths.
+         */
+        public PathSortKey getSortKey(String path) {
+            PathSortKey result = sortKeys.getIfPresent(path);
+            if (result == null) {
+                result = PathSortKey.make(DtdData.this, path);
+                if (result != null) {
+                    sortKeys.put(path, result);
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Sort the paths in DTD order.
+         */
+        public void sort(List<String> paths) {
+            PathSortKey[] keys = new PathSortKey[paths.size()];
+            int i = 0;
+            for (String path : paths) {
+                PathSortKey key = getSortKey(path);
+                if (key == null) {
+                    Collections.sort(paths, this);
+                    return;
+                }
+                keys[i++] = key;
+            }
+            Arrays.sort(keys);
+            for (i = 0; i < keys.length; ++i) {
+                paths.set(i, keys[i].path);
+            }
+        }
+
+        /**
+         * Compare by parsing the paths, without sort keys, as compare() did before there were keys. compare() only
+         * uses this for paths that don't have a sort key; it is public so that benchmarks can measure the difference.
+         */
+        public int compareParts(String path1, String path2) {
+            if (path1.equals(path2)) {
+                return 0;
+            }
             XPathParts a = XPathParts.getFrozenInstance(path1);
             XPathParts b = XPathParts.getFrozenInstance(path2);
             // there must always be at least one element
@@ -817,6 +889,152 @@ public class DtdData extends XMLFileReader.SimpleHandler {
         }
     }
 
+    /**
+     * A path, precomputed for comparison in DTD order. For each element there is an item for the element (its
+     * position among its parent's children), one for the _q attribute used in diffing, and one per attribute of the
+     * element in the DTD (absent, the position of the value in the DTD, or the value itself where the DTD doesn't
+     * order the values). Comparing two keys walks the items until one differs.
+     */
+    public static final class PathSortKey implements Comparable<PathSortKey> {
+        private static final int FAKE_ELEMENT = Integer.MIN_VALUE;
+        private static final int NO_Q = Integer.MIN_VALUE;
+        private static final int ABSENT = 0;
+        private static final int PRESENT = 1; // value compared as a string
+        private static final int UNKNOWN_VALUE = Integer.MAX_VALUE; // not in the DTD's values; compared as a string
+
+        public final String path;
+        private final int[] codes;
+        private final String[] values; // null, or for each item with a string value, the value
+        private final Comparator<String>[] comparators; // null, or for each item with a string value, its comparator
+
+        private PathSortKey(String path, int[] codes, String[] values, Comparator<String>[] comparators) {
+            this.path = path;
+            this.codes = codes;
+            this.values = values;
+            this.comparators = comparators;
+        }
+
+        /**
+         * Returns null if the path has an element that isn't in the DTD, or an attribute that the DTD doesn't declare
+         * for its element, since the key would leave out the attribute.
+         */
+        static PathSortKey make(DtdData dtdData, String path) {
+            XPathParts parts;
+            try {
+                parts = XPathParts.getFrozenInstance(path);
+            } catch (IllegalArgumentException e) {
+                return null; // an attribute that no DTD declares, which the attribute ordering rejects
+            }
+            if (!dtdData.ROOT.name.equals(parts.getElement(0))) {
+                throw new IllegalArgumentException("Comparing different DTDs: " + dtdData.ROOT.name + ", " + parts.getElement(0));
+            }
+            int[] codes = new int[16];
+            String[] values = null;
+            Comparator<String>[] comparators = null;
+            int count = 0;
+            Element parent = dtdData.ROOT;
+            for (int i = 1; i < parts.size(); ++i) {
+                String elementName = parts.getElement(i);
+                int itemsNeeded = count + 2; // 2 for the element and _q
+                if (!elementName.startsWith("_")) {
+                    Element element = dtdData.nameToElement.get(elementName);
+                    Integer childIndex = element == null ? null : parent.children.get(element);
+                    if (childIndex == null) {
+                        return null;
+                    }
+                    itemsNeeded += element.attributes.size();
+                }
+                if (itemsNeeded > codes.length) {
+                    int newLength = Math.max(itemsNeeded, codes.length * 2);
+                    codes = Arrays.copyOf(codes, newLength);
+                    if (values != null) {
+                        values = Arrays.copyOf(values, newLength);
+                        comparators = Arrays.copyOf(comparators, newLength);
+                    }
+                }
+                if (elementName.startsWith("_")) {
+                    // "fake" elements, used in diffing. they come before the others, and end the comparison
+                    if (values == null) {
+                        values = new String[codes.length];
+                        comparators = newComparators(codes.length);
+                    }
+                    values[count] = elementName;
+                    codes[count++] = FAKE_ELEMENT;
+                    break;
+                }
+                Element element = dtdData.nameToElement.get(elementName);
+                codes[count++] = parent.children.get(element);
+                String qValue = parts.getAttributeValue(i, "_q");
+                codes[count++] = qValue == null ? NO_Q : Integer.parseInt(qValue);
+                int attributesFound = qValue == null ? 0 : 1;
+                for (Attribute attribute : element.attributes.keySet()) {
+                    String value = parts.getAttributeValue(i, attribute.name);
+                    if (value == null) {
+                        codes[count++] = ABSENT;
+                        continue;
+                    }
+                    ++attributesFound;
+                    if (attribute.attributeValueComparator == null && attribute.values.size() != 0) {
+                        Integer valueIndex = attribute.values.get(value);
+                        if (valueIndex != null) {
+                            codes[count++] = PRESENT + 1 + valueIndex;
+                            continue;
+                        }
+                        codes[count] = UNKNOWN_VALUE;
+                    } else {
+                        codes[count] = PRESENT;
+                    }
+                    if (values == null) {
+                        values = new String[codes.length];
+                        comparators = newComparators(codes.length);
+                    }
+                    values[count] = value;
+                    comparators[count++] = attribute.attributeValueComparator;
+                }
+                if (attributesFound != parts.getAttributeCount(i)) {
+                    return null; // an undeclared attribute
+                }
+                parent = element;
+            }
+            return new PathSortKey(path, Arrays.copyOf(codes, count),
+                values == null ? null : Arrays.copyOf(values, count),
+                comparators == null ? null : Arrays.copyOf(comparators, count));
+        }
+
+        @SuppressWarnings("unchecked")
+        private static Comparator<String>[] newComparators(int length) {
+            return (Comparator<String>[]) new Comparator<?>[length];
+        }
+
+        @Override
+        public int compareTo(PathSortKey other) {
+            int min = Math.min(codes.length, other.codes.length);
+            for (int i = 0; i < min; ++i) {
+                int a = codes[i];
+                int b = other.codes[i];
+                if (a != b) {
+                    return a < b ? -1 : 1;
+                }
+                if (values != null && values[i] != null) {
+                    String valueA = values[i];
+                    String valueB = other.values[i];
+                    if (a == FAKE_ELEMENT) {
+                        return valueA.compareTo(valueB);
+                    } else if (!valueA.equals(valueB)) {
+                        return comparators[i] != null ? comparators[i].compare(valueA, valueB)
+                            : valueA.compareTo(valueB);
+                    }
+                }
+            }
+            return codes.length - other.codes.length;
+        }
+
+        @Override
+        public String toString() {
+            return path;
+        }
+    }
+
     public MapComparator<String> getAttributeComparator() {
         return attributeComparator;
     }
@@ -3,15 +3,26 @@ package org.unicode.cldr.util;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Predicate;
 
 import org.unicode.cldr.util.CLDRFile.DraftStatus;
 import org.unicode.cldr.util.CLDRLocale.SublocaleProvider;
 import org.unicode.cldr.util.XMLSource.ResolvingSource;
 
+import com.google.common.base.Throwables;
+
 /**
  * A factory is the normal method to produce a set of CLDRFiles from a directory of XML files.
  * See SimpleFactory for a concrete subclass.
@@ -23,6 +34,11 @@ public abstract class Factory implements SublocaleProvider {
      */
     private static final boolean DEBUG_FACTORY = false;
 
+    /**
+     * Maximum number of threads used by makeAll.
+     */
+    private static final int MAX_LOAD_THREADS = 16;
+
     private File supplementalDirectory = null;
 
     /**
@@ -129,6 +145,175 @@ public abstract class Factory implements SublocaleProvider {
         return make(currentLocaleID, true, madeWithMinimalDraftStatus);
     }
 
+    /**
+     * Make all the available locales accepted by the filter, loading them in parallel. See
+     * {@link #makeAll(Predicate, boolean, DraftStatus)}.
+     */
+    public LoadedFiles makeAll(Predicate<String> localeFilter, boolean resolved) {
+        return makeAll(localeFilter, resolved, getMinimalDraftStatus());
+    }
+
+    /**
+     * Make all the available locales accepted by the filter (or all of them if it is null), loading them in parallel
+     * on a fork-join pool. The files are returned as soon as each is ready, so not in any particular order, except
+     * that a resolved parent in the set comes before its children. For resolved files, each unresolved locale
+     * (including parents outside the filter, such as root) is loaded once, and each resolved file is built once its
+     * whole parent chain is loaded.
+     * <p>
+     * The result can only be iterated once. Iteration blocks until the next file is ready, and rethrows any exception
+     * from loading it. Callers that may stop before the end should close the result (eg with try-with-resources), so
+     * that the remaining locales aren't loaded.
+     */
+    public LoadedFiles makeAll(Predicate<String> localeFilter, final boolean resolved,
+        final DraftStatus madeWithMinimalDraftStatus) {
+        Set<String> locales = new TreeSet<String>();
+        for (String locale : getAvailable()) {
+            if (localeFilter == null || localeFilter.test(locale)) {
+                locales.add(locale);
+            }
+        }
+        final ForkJoinPool pool = new ForkJoinPool(Math.min(MAX_LOAD_THREADS, Runtime.getRuntime().availableProcessors()));
+        final BlockingQueue<CompletableFuture<CLDRFile>> done = new LinkedBlockingQueue<CompletableFuture<CLDRFile>>();
+        Map<String, CompletableFuture<List<XMLSource>>> chains = new HashMap<String, CompletableFuture<List<XMLSource>>>();
+        Map<String, CompletableFuture<CLDRFile>> files = new HashMap<String, CompletableFuture<CLDRFile>>();
+        for (final String locale : locales) {
+            if (!resolved) {
+                final CompletableFuture<CLDRFile> file = CompletableFuture.supplyAsync(
+                    () -> make(locale, false, madeWithMinimalDraftStatus), pool);
+                file.whenComplete((f, e) -> done.add(file));
+            } else {
+                getResolvedFile(locale, locales, files, chains, pool, done, madeWithMinimalDraftStatus);
+            }
+        }
+        return new LoadedFiles(pool, done, locales.size());
+    }
+
+    /**
+     * The files being made by makeAll. Iterating to the end, or closing, shuts down the loading threads; closing
+     * before the end also cancels the loads that haven't started.
+     */
+    public static final class LoadedFiles implements Iterable<CLDRFile>, AutoCloseable {
+        private final ForkJoinPool pool;
+        private final BlockingQueue<CompletableFuture<CLDRFile>> done;
+        private final int count;
+        private int returned = 0;
+
+        private LoadedFiles(ForkJoinPool pool, BlockingQueue<CompletableFuture<CLDRFile>> done, int count) {
+            this.pool = pool;
+            this.done = done;
+            this.count = count;
+        }
+
+        @Override
+        public Iterator<CLDRFile> iterator() {
+            return new Iterator<CLDRFile>() {
+                @Override
+                public boolean hasNext() {
+                    if (returned < count) {
+                        return true;
+                    }
+                    pool.shutdown();
+                    return false;
+                }
+
+                @Override
+                public CLDRFile next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    ++returned;
+                    try {
+                        return done.take().join();
+                    } catch (InterruptedException e) {
+                        close();
+                        Thread.currentThread().interrupt();
+                        throw new IllegalStateException("Interrupted while loading", e);
+                    } catch (CompletionException e) {
+                        close();
+                        Throwables.throwIfUnchecked(e.getCause());
+                        throw e;
+                    }
+                }
+            };
+        }
+
+        /**
+         * Stop loading: files already being loaded are finished (and dropped), the rest aren't started.
+         */
+        @Override
+        public void close() {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Get the future resolved file for a locale in makeAll, which is queued when done. If the locale's parent is also
+     * being made, the file isn't built until the parent has been queued.
+     */
+    private CompletableFuture<CLDRFile> getResolvedFile(final String locale, Set<String> locales,
+        Map<String, CompletableFuture<CLDRFile>> files, Map<String, CompletableFuture<List<XMLSource>>> chains,
+        ForkJoinPool pool, final BlockingQueue<CompletableFuture<CLDRFile>> done,
+        final DraftStatus madeWithMinimalDraftStatus) {
+        CompletableFuture<CLDRFile> result = files.get(locale);
+        if (result == null) {
+            CompletableFuture<List<XMLSource>> chain = getUnresolvedChain(locale, chains, pool, madeWithMinimalDraftStatus);
+            String parent = LocaleIDParser.getParent(locale);
+            if (parent != null && locales.contains(parent)) {
+                chain = chain.thenCombine(getResolvedFile(parent, locales, files, chains, pool, done,
+                    madeWithMinimalDraftStatus), (c, parentFile) -> c);
+            }
+            final CompletableFuture<CLDRFile> file = chain.thenApplyAsync(c -> makeResolved(locale, c,
+                madeWithMinimalDraftStatus).setSupplementalDirectory(getSupplementalDirectory()), pool);
+            // whenComplete's future completes only after the file is queued
+            result = file.whenComplete((f, e) -> done.add(file));
+            files.put(locale, result);
+        }
+        return result;
+    }
+
+    /**
+     * Get the future list of unresolved sources for the locale and its parents, up to root, as used by
+     * ResolvingSource. Each locale is loaded in its own task, so a parent's parse doesn't hold up its children's.
+     */
+    private CompletableFuture<List<XMLSource>> getUnresolvedChain(final String locale,
+        Map<String, CompletableFuture<List<XMLSource>>> chains, ForkJoinPool pool,
+        final DraftStatus madeWithMinimalDraftStatus) {
+        CompletableFuture<List<XMLSource>> result = chains.get(locale);
+        if (result == null) {
+            CompletableFuture<XMLSource> source = CompletableFuture.supplyAsync(() -> {
+                CLDRFile file = handleMake(locale, false, madeWithMinimalDraftStatus);
+                if (file == null) {
+                    throw new IllegalArgumentException("Can't make " + locale
+                        + ", which is needed to resolve it or its children");
+                }
+                return file.dataSource;
+            }, pool);
+            String parent = LocaleIDParser.getParent(locale);
+            if (parent == null) {
+                result = source.thenApply(s -> Collections.singletonList(s));
+            } else {
+                result = source.thenCombine(getUnresolvedChain(parent, chains, pool, madeWithMinimalDraftStatus),
+                    (s, parentChain) -> {
+                        List<XMLSource> chain = new ArrayList<XMLSource>(parentChain.size() + 1);
+                        chain.add(s);
+                        chain.addAll(parentChain);
+                        return chain;
+                    });
+            }
+            chains.put(locale, result);
+        }
+        return result;
+    }
+
+    /**
+     * Make a resolved file for makeAll, given the unresolved sources for the locale and its parents. By default this
+     * is just make(localeID, true, ...); subclasses can override to build the file from the sources directly.
+     */
+    protected CLDRFile makeResolved(String localeID, List<XMLSource> unresolvedChain,
+        DraftStatus madeWithMinimalDraftStatus) {
+        return make(localeID, true, madeWithMinimalDraftStatus);
+    }
+
     public static XMLSource makeResolvingSource(List<XMLSource> sources) {
         return new ResolvingSource(sources);
     }
@@ -153,8 +338,7 @@ public abstract class Factory implements SublocaleProvider {
      */
     protected ResolvingSource makeResolvingSource(String localeID, DraftStatus madeWithMinimalDraftStatus) {
         List<XMLSource> sourceList = new ArrayList<XMLSource>();
-        String curLocale = localeID;
-        while (curLocale != null) {
+        for (String curLocale : LocaleIDParser.getParentChain(localeID)) {
             if (DEBUG_FACTORY) {
                 System.out.println("Factory.makeResolvingSource: calling handleMake for locale " +
                     curLocale + " and MimimalDraftStatus " + madeWithMinimalDraftStatus);
@@ -165,7 +349,6 @@ public abstract class Factory implements SublocaleProvider {
             }
             XMLSource source = file.dataSource;
             sourceList.add(source);
-            curLocale = LocaleIDParser.getParent(curLocale);
         }
         return new ResolvingSource(sourceList);
     }
@@ -287,7 +470,8 @@ public abstract class Factory implements SublocaleProvider {
     }
 
     /**
-     * Helper function. Does not cache.
+     * Helper function. Does not cache. The children come from the SupplementalDataInfo's LocaleGraph; only available
+     * locales that aren't in the graph need their parents checked.
      *
      * @param locale
      * @param available
@@ -295,8 +479,18 @@ public abstract class Factory implements SublocaleProvider {
      */
     public Set<CLDRLocale> calculateSubLocalesOf(CLDRLocale locale, Set<CLDRLocale> available) {
         Set<CLDRLocale> sub = new TreeSet<CLDRLocale>();
+        LocaleGraph graph = SupplementalDataInfo.getInstance().getLocaleGraph();
+        int index = graph.getIndex(locale.getBaseName());
+        if (index >= 0) {
+            for (int child : graph.getChildren(index)) {
+                CLDRLocale l = CLDRLocale.getInstance(graph.getLocale(child));
+                if (available.contains(l)) {
+                    sub.add(l);
+                }
+            }
+        }
         for (CLDRLocale l : available) {
-            if (l.getParent() == locale) {
+            if (graph.getIndex(l.getBaseName()) < 0 && l.getParent() == locale) {
                 sub.add(l);
             }
         }
@@ -0,0 +1,273 @@
+package org.unicode.cldr.util;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+import org.unicode.cldr.util.XPathParts.Comments;
+
+import com.ibm.icu.util.Output;
+import com.ibm.icu.util.VersionInfo;
+
+/**
+ * Immutable, fully materialized copy of a frozen, resolved CLDRFile (see CLDRFile.flatten()), for read-only
+ * consumers that make very many lookups. The value, full path, and source locale of every path (including the extra paths) are
+ * computed once, up front, and held in an open-addressing table of parallel arrays, so each lookup is a hash probe
+ * instead of a walk through the ResolvingSource alias and parent logic. Anything not in the table (such as a path that
+ * isn't in the file at all) is passed on to the original resolved source.
+ */
+public final class FlattenedXMLSource extends XMLSource {
+    // rough sizes, for getMemoryEstimate
+    private static final int REFERENCE_BYTES = 4;
+    private static final int ARRAY_HEADER_BYTES = 16;
+    private static final int STRING_BYTES = 24 + ARRAY_HEADER_BYTES;
+
+    private final XMLSource resolved;
+    private final String[] paths;
+    private final String[] values;
+    private final String[] fullPaths; // null where the same as the path
+    private final String[] sourceLocales;
+    private final String[] pathsWhereFound; // null where the same as the path
+    private final int size;
+    private final long memoryEstimate;
+
+    FlattenedXMLSource(CLDRFile resolvedFile) {
+        if (!resolvedFile.isFrozen()) {
+            throw new UnsupportedOperationException("Only frozen files can be flattened: " + resolvedFile.getLocaleID());
+        }
+        resolved = resolvedFile.dataSource;
+        if (!resolved.isResolving()) {
+            throw new IllegalArgumentException("Only resolved files can be flattened: " + resolved.getLocaleID());
+        }
+        setLocaleID(resolved.getLocaleID());
+        setNonInheriting(resolved.isNonInheriting());
+
+        int count = 0;
+        for (Iterator<String> it = resolvedFile.fullIterable().iterator(); it.hasNext(); it.next()) {
+            ++count;
+        }
+        int capacity = 16;
+        while (capacity < count * 2) {
+            capacity <<= 1;
+        }
+        paths = new String[capacity];
+        values = new String[capacity];
+        fullPaths = new String[capacity];
+        sourceLocales = new String[capacity];
+        pathsWhereFound = new String[capacity];
+
+        int filled = 0;
+        CLDRFile.Status status = new CLDRFile.Status();
+        for (String path : resolvedFile.fullIterable()) {
+            String value = resolvedFile.getStringValue(path);
+            if (value == null) {
+                continue;
+            }
+            int slot = findSlot(path);
+            if (paths[slot] != null) {
+                continue; // duplicate from the extra paths
+            }
+            paths[slot] = path;
+            values[slot] = value;
+            String fullPath = resolvedFile.getFullXPath(path);
+            fullPaths[slot] = path.equals(fullPath) ? null : fullPath;
+            sourceLocales[slot] = resolvedFile.getSourceLocaleID(path, status);
+            pathsWhereFound[slot] = path.equals(status.pathWhereFound) ? null : status.pathWhereFound;
+            ++filled;
+        }
+        size = filled;
+        memoryEstimate = computeMemoryEstimate();
+        locked = true;
+    }
+
+    /**
+     * Number of paths in the table.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Rough number of bytes held by the table: the arrays, plus each distinct string they refer to, counted once.
+     * Strings shared with the original files are included, so this is an upper bound on what flattening adds.
+     */
+    public long getMemoryEstimate() {
+        return memoryEstimate;
+    }
+
+    private long computeMemoryEstimate() {
+        long result = 5L * (ARRAY_HEADER_BYTES + (long) paths.length * REFERENCE_BYTES);
+        Map<String, Boolean> seen = new IdentityHashMap<String, Boolean>();
+        for (String[] array : Arrays.asList(paths, values, fullPaths, sourceLocales, pathsWhereFound)) {
+            for (String s : array) {
+                if (s != null && seen.put(s, Boolean.TRUE) == null) {
+                    result += STRING_BYTES + 2L * s.length();
+                }
+            }
+        }
+        return result;
+    }
+
+    private int findSlot(String path) {
+        int mask = paths.length - 1;
+        int h = path.hashCode();
+        int slot = (h ^ (h >>> 16)) & mask;
+        while (paths[slot] != null && !paths[slot].equals(path)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Get the slot for a path in the table, or -1.
+     */
+    private int getSlot(String path) {
+        int slot = findSlot(path);
+        return paths[slot] == null ? -1 : slot;
+    }
+
+    // Lookups
+
+    @Override
+    public String getValueAtPath(String xpath) {
+        // most callers pass distinguishing paths, so try those directly first
+        int slot = getSlot(xpath);
+        return slot >= 0 ? values[slot] : super.getValueAtPath(xpath);
+    }
+
+    @Override
+    public String getFullPath(String xpath) {
+        int slot = getSlot(xpath);
+        return slot >= 0 ? getFullPath(slot) : super.getFullPath(xpath);
+    }
+
+    @Override
+    public String getValueAtDPath(String path) {
+        int slot = getSlot(path);
+        return slot >= 0 ? values[slot] : resolved.getValueAtDPath(path);
+    }
+
+    @Override
+    public String getFullPathAtDPath(String path) {
+        int slot = getSlot(path);
+        return slot >= 0 ? getFullPath(slot) : resolved.getFullPathAtDPath(path);
+    }
+
+    private String getFullPath(int slot) {
+        String result = fullPaths[slot];
+        return result != null ? result : paths[slot];
+    }
+
+    @Override
+    public String getSourceLocaleID(String path, CLDRFile.Status status) {
+        int slot = getSlot(path);
+        if (slot < 0) {
+            return resolved.getSourceLocaleID(path, status);
+        }
+        if (status != null) {
+            String pathWhereFound = pathsWhereFound[slot];
+            status.pathWhereFound = pathWhereFound != null ? pathWhereFound : paths[slot];
+        }
+        return sourceLocales[slot];
+    }
+
+    // Everything else comes from the resolved source
+
+    /**
+     * Iterates over the same paths as the resolved file; the extra paths are in the table, but not returned here.
+     */
+    @Override
+    public Iterator<String> iterator() {
+        return resolved.iterator();
+    }
+
+    @Override
+    public Iterator<String> iterator(String prefix) {
+        return resolved.iterator(prefix);
+    }
+
+    @Override
+    public boolean isResolving() {
+        return true;
+    }
+
+    @Override
+    public XMLSource getUnresolving() {
+        return resolved.getUnresolving();
+    }
+
+    @Override
+    public String getBaileyValue(String xpath, Output<String> pathWhereFound, Output<String> localeWhereFound) {
+        return resolved.getBaileyValue(xpath, pathWhereFound, localeWhereFound);
+    }
+
+    @Override
+    public String getWinningPath(String path) {
+        return resolved.getWinningPath(path);
+    }
+
+    @Override
+    public Date getChangeDateAtDPath(String path) {
+        return resolved.getChangeDateAtDPath(path);
+    }
+
+    @Override
+    public boolean isHere(String path) {
+        return resolved.isHere(path);
+    }
+
+    @Override
+    public void getPathsWithValue(String valueToMatch, String pathPrefix, Set<String> result) {
+        resolved.getPathsWithValue(valueToMatch, pathPrefix, result);
+    }
+
+    @Override
+    public Iterable<String> getPathsWithValue(String valueToMatch, String pathPrefix) {
+        return resolved.getPathsWithValue(valueToMatch, pathPrefix);
+    }
+
+    @Override
+    public Comments getXpathComments() {
+        return resolved.getXpathComments();
+    }
+
+    @Override
+    public VersionInfo getDtdVersionInfo() {
+        return resolved.getDtdVersionInfo();
+    }
+
+    // Read-only
+
+    @Override
+    public void putFullPathAtDPath(String distinguishingXPath, String fullxpath) {
+        throw new UnsupportedOperationException("Flattened CLDRFiles are read-only");
+    }
+
+    @Override
+    public void putValueAtDPath(String distinguishingXPath, String value) {
+        throw new UnsupportedOperationException("Flattened CLDRFiles are read-only");
+    }
+
+    @Override
+    public void removeValueAtDPath(String distinguishingXPath) {
+        throw new UnsupportedOperationException("Flattened CLDRFiles are read-only");
+    }
+
+    @Override
+    public void setXpathComments(Comments comments) {
+        throw new UnsupportedOperationException("Flattened CLDRFiles are read-only");
+    }
+
+    @Override
+    public XMLSource freeze() {
+        return this; // already read-only
+    }
+
+    @Override
+    public XMLSource cloneAsThawed() {
+        return resolved.cloneAsThawed();
+    }
+}
@@ -0,0 +1,179 @@
+package org.unicode.cldr.util;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * A frozen graph of locale IDs, indexed by int: for each locale, its parent (as used for inheritance, including the
+ * explicit parentLocales), its children, whether it is default content, and its chain of parents up to root.
+ * Built once per SupplementalDataInfo, from the locales in the data directories and in the supplemental data, plus
+ * all their parents. Locales that aren't in the graph have an index of -1; callers fall back to computing their
+ * parents from the string (see LocaleIDParser.getParent).
+ * <p>
+ * Thread-safe: nothing changes after construction.
+ */
+public final class LocaleGraph {
+    private final String[] ids;
+    private final Map<String, Integer> idToIndex;
+    private final int[] parents;
+    private final int[][] children;
+    private final int[][] chains;
+    private final BitSet defaultContent;
+
+    /**
+     * Build the graph for the locales and their parents, with the parents from the supplemental data.
+     */
+    static LocaleGraph build(Collection<String> locales, SupplementalDataInfo sdi) {
+        Set<String> all = new TreeSet<String>();
+        for (String locale : locales) {
+            // add the locale and its parents, stopping at the first one we already have
+            for (String current = locale; current != null && all.add(current);) {
+                current = LocaleIDParser.computeParent(current, sdi);
+            }
+        }
+        return new LocaleGraph(all, sdi);
+    }
+
+    private LocaleGraph(Set<String> sortedLocales, SupplementalDataInfo sdi) {
+        int size = sortedLocales.size();
+        ids = sortedLocales.toArray(new String[size]);
+        Map<String, Integer> tempIdToIndex = new HashMap<String, Integer>(size * 2);
+        for (int i = 0; i < size; ++i) {
+            tempIdToIndex.put(ids[i], i);
+        }
+        idToIndex = Collections.unmodifiableMap(tempIdToIndex);
+
+        parents = new int[size];
+        int[] childCounts = new int[size];
+        for (int i = 0; i < size; ++i) {
+            String parent = LocaleIDParser.computeParent(ids[i], sdi);
+            parents[i] = parent == null ? -1 : idToIndex.get(parent);
+            if (parents[i] >= 0) {
+                ++childCounts[parents[i]];
+            }
+        }
+
+        // ids are sorted, so the children are too
+        children = new int[size][];
+        for (int i = 0; i < size; ++i) {
+            children[i] = new int[childCounts[i]];
+            childCounts[i] = 0;
+        }
+        for (int i = 0; i < size; ++i) {
+            int parent = parents[i];
+            if (parent >= 0) {
+                children[parent][childCounts[parent]++] = i;
+            }
+        }
+
+        chains = new int[size][];
+        for (int i = 0; i < size; ++i) {
+            int length = 0;
+            for (int current = i; current >= 0; current = parents[current]) {
+                if (++length > size) {
+                    throw new IllegalArgumentException("Cycle in the parents of " + ids[i]);
+                }
+            }
+            int[] chain = new int[length];
+            length = 0;
+            for (int current = i; current >= 0; current = parents[current]) {
+                chain[length++] = current;
+            }
+            chains[i] = chain;
+        }
+
+        defaultContent = new BitSet(size);
+        Set<String> defaultContentLocales = sdi.getDefaultContentLocales();
+        if (defaultContentLocales != null) {
+            for (String locale : defaultContentLocales) {
+                Integer index = idToIndex.get(locale);
+                if (index != null) {
+                    defaultContent.set(index);
+                }
+            }
+        }
+    }
+
+    /**
+     * Number of locales in the graph.
+     */
+    public int size() {
+        return ids.length;
+    }
+
+    /**
+     * Returns the index of the locale, or -1 if it isn't in the graph.
+     */
+    public int getIndex(String locale) {
+        Integer result = idToIndex.get(locale);
+        return result == null ? -1 : result;
+    }
+
+    public String getLocale(int index) {
+        return ids[index];
+    }
+
+    /**
+     * Returns the index of the parent, or -1 for root (or supplementalData).
+     */
+    public int getParent(int index) {
+        return parents[index];
+    }
+
+    /**
+     * Returns the indexes of the children, in locale ID order. Don't modify the array.
+     */
+    public int[] getChildren(int index) {
+        return children[index];
+    }
+
+    /**
+     * Returns the children of the locale, or null if it isn't in the graph.
+     */
+    public List<String> getChildren(String locale) {
+        return toLocales(getIndex(locale), children);
+    }
+
+    /**
+     * Returns the indexes of the locale, its parent, its parent's parent, and so on up to root, as used for
+     * resolution. Don't modify the array.
+     */
+    public int[] getParentChain(int index) {
+        return chains[index];
+    }
+
+    /**
+     * Returns the locale, its parent, its parent's parent, and so on up to root, or null if it isn't in the graph.
+     */
+    public List<String> getParentChain(String locale) {
+        return toLocales(getIndex(locale), chains);
+    }
+
+    public boolean isDefaultContent(int index) {
+        return defaultContent.get(index);
+    }
+
+    private List<String> toLocales(int index, int[][] indexes) {
+        if (index < 0) {
+            return null;
+        }
+        int[] items = indexes[index];
+        List<String> result = new ArrayList<String>(items.length);
+        for (int item : items) {
+            result.add(ids[item]);
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    @Override
+    public String toString() {
+        return "LocaleGraph: " + ids.length + " locales";
+    }
+}
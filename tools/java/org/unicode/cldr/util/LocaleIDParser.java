@@ -111,6 +111,35 @@ public class LocaleIDParser {
      */
     public static String getParent(String localeName) {
         SupplementalDataInfo sdi = SupplementalDataInfo.getInstance();
+        LocaleGraph graph = sdi.getLocaleGraph();
+        int index = graph.getIndex(localeName);
+        if (index >= 0) {
+            int parent = graph.getParent(index);
+            return parent < 0 ? null : graph.getLocale(parent);
+        }
+        return computeParent(localeName, sdi);
+    }
+
+    /**
+     * Utility to get the locale, its parent, its parent's parent, and so on up to root, as used for resolution.
+     * Only works on canonical locale names, like getParent.
+     */
+    public static List<String> getParentChain(String localeName) {
+        List<String> result = SupplementalDataInfo.getInstance().getLocaleGraph().getParentChain(localeName);
+        if (result == null) {
+            result = new ArrayList<String>();
+            for (String current = localeName; current != null; current = getParent(current)) {
+                result.add(current);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Compute the parent of a locale from the string and the supplemental data; used to build the LocaleGraph, and
+     * for locales that aren't in it.
+     */
+    static String computeParent(String localeName, SupplementalDataInfo sdi) {
         int pos = localeName.lastIndexOf('_');
         if (pos >= 0) {
             String explicitParent = sdi.getExplicitParentLocale(localeName);
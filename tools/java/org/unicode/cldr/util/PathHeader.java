@@ -1,8 +1,19 @@
 package org.unicode.cldr.util;
 
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -15,13 +26,16 @@ import java.util.Map.Entry;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.zip.CRC32;
 
 import org.unicode.cldr.draft.ScriptMetadata;
 import org.unicode.cldr.draft.ScriptMetadata.Info;
 import org.unicode.cldr.tool.LikelySubtags;
 import org.unicode.cldr.util.RegexLookup.Finder;
+import org.unicode.cldr.util.RegexLookup.LookupType;
 import org.unicode.cldr.util.With.SimpleIterator;
 
 import com.google.common.base.Splitter;
@@ -32,6 +46,7 @@ import com.ibm.icu.lang.UCharacter;
 import com.ibm.icu.text.Collator;
 import com.ibm.icu.text.Transform;
 import com.ibm.icu.util.ICUException;
+import com.ibm.icu.util.ICUUncheckedIOException;
 import com.ibm.icu.util.Output;
 import com.ibm.icu.util.ULocale;
 
@@ -120,6 +135,11 @@ public class PathHeader implements Comparable<PathHeader> {
         final String mainOrder;
         final int order;
 
+        private SubstringOrder(String mainOrder, int order) {
+            this.mainOrder = mainOrder;
+            this.order = order;
+        }
+
         public SubstringOrder(String source) {
             int pos = source.lastIndexOf('-') + 1;
             int ordering = COUNTS.indexOf(source.substring(pos));
@@ -437,6 +457,16 @@ public class PathHeader implements Comparable<PathHeader> {
                         ULocale.ENGLISH.getBaseName() + "', but found '" + englishFile.getLocaleID() + "'");
             }
             factorySingleton = new Factory(englishFile);
+            if (SimpleFactory.SnapshotDirectory.DIRECTORY != null) {
+                File tableFile = new File(SimpleFactory.SnapshotDirectory.DIRECTORY, "PathHeader.snapshot");
+                if (!Factory.loadTable(tableFile)) {
+                    try {
+                        factorySingleton.writeTable(tableFile, englishFile.fullIterable());
+                    } catch (ICUUncheckedIOException e) {
+                        System.err.println("WARNING: " + e.getMessage()); // the table is only an optimization
+                    }
+                }
+            }
         }
         return factorySingleton;
     }
@@ -592,9 +622,9 @@ public class PathHeader implements Comparable<PathHeader> {
 
     public static class Factory implements Transform<String, PathHeader> {
         static final RegexLookup<RawData> lookup = RegexLookup
-                .of(new PathHeaderTransform())
-                .setPatternTransform(
+                .<RawData> of(LookupType.PREFIX_TRIE_LOOKUP,
                         RegexLookup.RegexFinderTransformPath)
+                .setValueTransform(new PathHeaderTransform())
                         .loadFromFile(
                                 PathHeader.class,
                                 "data/PathHeader.txt");
@@ -608,13 +638,9 @@ public class PathHeader implements Comparable<PathHeader> {
         static int order;
         static SubstringOrder suborder;
 
-        static final Map<String, PathHeader> cache = new HashMap<String, PathHeader>();
-        // synchronized with cache
-        static final Map<SectionId, Map<PageId, SectionPage>> sectionToPageToSectionPage = new EnumMap<SectionId, Map<PageId, SectionPage>>(
-                SectionId.class);
-        static final Relation<SectionPage, String> sectionPageToPaths = Relation
-                .of(new TreeMap<SectionPage, Set<String>>(),
-                        HashSet.class);
+        // read without locking; PathHeaders are made while synchronized with lookup, or loaded by loadTable
+        static final ConcurrentHashMap<String, PathHeader> cache = new ConcurrentHashMap<String, PathHeader>();
+        static final ConcurrentHashMap<SectionPage, Set<String>> sectionPageToPaths = new ConcurrentHashMap<SectionPage, Set<String>>();
         private static CLDRFile englishFile;
         private Set<String> matchersFound = new HashSet<String>();
 
@@ -648,9 +674,7 @@ public class PathHeader implements Comparable<PathHeader> {
          * Use only when trying to find unmatched patterns
          */
         public void clearCache() {
-            synchronized (cache) {
-                cache.clear();
-            }
+            cache.clear();
         }
 
         /**
@@ -675,11 +699,9 @@ public class PathHeader implements Comparable<PathHeader> {
             if (path == null) {
                 throw new NullPointerException("Path cannot be null");
             }
-            synchronized (cache) {
-                PathHeader old = cache.get(path);
-                if (old != null) {
-                    return old;
-                }
+            PathHeader old = cache.get(path);
+            if (old != null) {
+                return old;
             }
             synchronized (lookup) {
                 String cleanPath = path;
@@ -723,27 +745,7 @@ public class PathHeader implements Comparable<PathHeader> {
                             suborder,
                             data.status,
                             path);
-                    synchronized (cache) {
-                        PathHeader old = cache.get(path);
-                        if (old == null) {
-                            cache.put(path, result);
-                        } else {
-                            result = old;
-                        }
-                        Map<PageId, SectionPage> pageToPathHeaders = sectionToPageToSectionPage
-                                .get(result.sectionId);
-                        if (pageToPathHeaders == null) {
-                            sectionToPageToSectionPage.put(result.sectionId, pageToPathHeaders
-                                    = new EnumMap<PageId, SectionPage>(PageId.class));
-                        }
-                        SectionPage sectionPage = pageToPathHeaders.get(result.pageId);
-                        if (sectionPage == null) {
-                            sectionPage = new SectionPage(result.sectionId, result.pageId);
-                            pageToPathHeaders.put(result.pageId, sectionPage);
-                        }
-                        sectionPageToPaths.put(sectionPage, path);
-                    }
-                    return result;
+                    return addToCache(result);
                 } catch (Exception e) {
                     throw new IllegalArgumentException(
                             "Probably mismatch in Page/Section enum, or too few capturing groups in regex for " + cleanPath,
@@ -752,6 +754,26 @@ public class PathHeader implements Comparable<PathHeader> {
             }
         }
 
+        /**
+         * Add a PathHeader to the cache (unless one is already there for its path) and to the index by section and
+         * page. Returns the cached PathHeader.
+         */
+        private static PathHeader addToCache(PathHeader pathHeader) {
+            PathHeader old = cache.putIfAbsent(pathHeader.originalPath, pathHeader);
+            PathHeader result = old == null ? pathHeader : old;
+            SectionPage sectionPage = new SectionPage(result.sectionId, result.pageId);
+            Set<String> paths = sectionPageToPaths.get(sectionPage);
+            if (paths == null) {
+                Set<String> oldPaths = sectionPageToPaths.putIfAbsent(sectionPage,
+                        paths = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>()));
+                if (oldPaths != null) {
+                    paths = oldPaths;
+                }
+            }
+            paths.add(result.originalPath);
+            return result;
+        }
+
         private static class SectionPage implements Comparable<SectionPage> {
             private final SectionId sectionId;
             private final PageId pageId;
@@ -778,12 +800,10 @@ public class PathHeader implements Comparable<PathHeader> {
 
             @Override
             public boolean equals(Object obj) {
-                PathHeader other;
-                try {
-                    other = (PathHeader) obj;
-                } catch (Exception e) {
+                if (!(obj instanceof SectionPage)) {
                     return false;
                 }
+                SectionPage other = (SectionPage) obj;
                 return sectionId == other.sectionId && pageId == other.pageId;
             }
 
@@ -812,22 +832,154 @@ public class PathHeader implements Comparable<PathHeader> {
          */
         public static Set<String> getCachedPaths(SectionId sectionId, PageId page) {
             Set<String> target = new HashSet<String>();
-            synchronized (cache) {
-                Map<PageId, SectionPage> pageToSectionPage = sectionToPageToSectionPage
-                        .get(sectionId);
-                if (pageToSectionPage == null) {
-                    return target;
-                }
-                SectionPage sectionPage = pageToSectionPage.get(page);
-                if (sectionPage == null) {
-                    return target;
-                }
-                Set<String> set = sectionPageToPaths.getAll(sectionPage);
+            Set<String> set = sectionPageToPaths.get(new SectionPage(sectionId, page));
+            if (set != null) {
                 target.addAll(set);
             }
             return target;
         }
 
+        private static final int TABLE_MAGIC = 0x434C5048; // "CLPH"
+        private static final int TABLE_FORMAT_VERSION = 2;
+
+        /**
+         * Write the PathHeaders for the paths to a table file, for loadTable. Paths without a PathHeader are
+         * skipped. As with the CLDRFile snapshots, it is written to a temporary file and then moved into place.
+         * The table is tied to the contents of PathHeader.txt and of the data files the rules read (see
+         * getDataFiles): change TABLE_FORMAT_VERSION if the meaning of the rules changes in some other way (such as
+         * in the functions used by the rules).
+         */
+        public void writeTable(File tableFile, Iterable<String> paths) {
+            TreeMap<String, PathHeader> pathHeaders = new TreeMap<String, PathHeader>();
+            for (String path : paths) {
+                try {
+                    PathHeader pathHeader = fromPath(path);
+                    if (pathHeader != null) {
+                        pathHeaders.put(path, pathHeader);
+                    }
+                } catch (RuntimeException e) {
+                    // no PathHeader for this path
+                }
+            }
+            File dir = tableFile.getAbsoluteFile().getParentFile();
+            if (!dir.isDirectory() && !dir.mkdirs() && !dir.isDirectory()) {
+                throw new ICUUncheckedIOException("Can't create directory " + dir);
+            }
+            File temp = null;
+            try {
+                temp = File.createTempFile(tableFile.getName(), ".tmp", dir);
+                try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+                    out.writeInt(TABLE_MAGIC);
+                    out.writeInt(TABLE_FORMAT_VERSION);
+                    out.writeLong(getRulesCrc());
+                    XMLSourceSnapshot.putFiles(out, getDataFiles());
+                    out.writeInt(pathHeaders.size());
+                    String lastPath = "";
+                    for (PathHeader pathHeader : pathHeaders.values()) {
+                        String path = pathHeader.originalPath;
+                        int shared = XMLSourceSnapshot.sharedPrefixLength(lastPath, path);
+                        out.writeInt(shared);
+                        XMLSourceSnapshot.putString(out, path.substring(shared));
+                        XMLSourceSnapshot.putString(out, pathHeader.sectionId.name());
+                        XMLSourceSnapshot.putString(out, pathHeader.pageId.name());
+                        XMLSourceSnapshot.putString(out, pathHeader.header);
+                        out.writeInt(pathHeader.headerOrder);
+                        XMLSourceSnapshot.putString(out, pathHeader.code);
+                        out.writeInt(pathHeader.codeOrder);
+                        out.writeBoolean(pathHeader.codeSuborder != null);
+                        if (pathHeader.codeSuborder != null) {
+                            XMLSourceSnapshot.putString(out, pathHeader.codeSuborder.mainOrder);
+                            out.writeInt(pathHeader.codeSuborder.order);
+                        }
+                        XMLSourceSnapshot.putString(out, pathHeader.status.name());
+                        lastPath = path;
+                    }
+                }
+                Files.move(temp.toPath(), tableFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                throw new ICUUncheckedIOException("Can't write PathHeader table " + tableFile, e);
+            } finally {
+                if (temp != null) {
+                    temp.delete(); // no-op if the move succeeded
+                }
+            }
+        }
+
+        /**
+         * Load a table written by writeTable into the cache, so that fromPath and getCachedPaths don't need to run
+         * the rules for those paths. Returns false, loading nothing, if the file doesn't exist, is damaged or in an
+         * older format, or was made with a different PathHeader.txt or data files.
+         */
+        public static boolean loadTable(File tableFile) {
+            if (!tableFile.canRead()) {
+                return false;
+            }
+            try (FileChannel channel = FileChannel.open(tableFile.toPath(), StandardOpenOption.READ)) {
+                ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                if (buffer.getInt() != TABLE_MAGIC
+                        || buffer.getInt() != TABLE_FORMAT_VERSION
+                        || buffer.getLong() != getRulesCrc()
+                        || !XMLSourceSnapshot.checkFiles(buffer, getDataFiles())) {
+                    return false;
+                }
+                // decode everything before adding, so that a damaged table doesn't leave partial data
+                PathHeader[] pathHeaders = new PathHeader[buffer.getInt()];
+                String lastPath = "";
+                for (int i = 0; i < pathHeaders.length; ++i) {
+                    int shared = buffer.getInt();
+                    String path = lastPath.substring(0, shared) + XMLSourceSnapshot.getString(buffer);
+                    SectionId sectionId = SectionId.valueOf(XMLSourceSnapshot.getString(buffer));
+                    PageId pageId = PageId.valueOf(XMLSourceSnapshot.getString(buffer));
+                    String header = XMLSourceSnapshot.getString(buffer);
+                    int headerOrder = buffer.getInt();
+                    String code = XMLSourceSnapshot.getString(buffer);
+                    int codeOrder = buffer.getInt();
+                    SubstringOrder suborder = buffer.get() == 0 ? null
+                            : new SubstringOrder(XMLSourceSnapshot.getString(buffer), buffer.getInt());
+                    SurveyToolStatus status = SurveyToolStatus.valueOf(XMLSourceSnapshot.getString(buffer));
+                    pathHeaders[i] = new PathHeader(sectionId, pageId, header, headerOrder, code, codeOrder,
+                            suborder, status, path);
+                    lastPath = path;
+                }
+                for (PathHeader pathHeader : pathHeaders) {
+                    addToCache(pathHeader);
+                }
+                return true;
+            } catch (IOException | RuntimeException e) {
+                return false;
+            }
+        }
+
+        /**
+         * The checksum of the rules in PathHeader.txt, identifying the tables made with them.
+         */
+        private static long getRulesCrc() throws IOException {
+            CRC32 crc = new CRC32();
+            try (BufferedReader reader = FileReaders.openFile(PathHeader.class, "data/PathHeader.txt")) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    crc.update(line.getBytes(StandardCharsets.UTF_8));
+                    crc.update('\n');
+                }
+            }
+            return crc.getValue();
+        }
+
+        /**
+         * The data files that the functions used by the rules read: the English names (with root), and the
+         * containment, currency, metazone and likely subtags data.
+         */
+        private static List<File> getDataFiles() {
+            File supplementalDirectory = supplementalDataInfo.getDirectory();
+            return Arrays.asList(
+                    new File(CLDRPaths.MAIN_DIRECTORY, "en.xml"),
+                    new File(CLDRPaths.MAIN_DIRECTORY, "root.xml"),
+                    new File(supplementalDirectory, "supplementalData.xml"),
+                    new File(supplementalDirectory, "metaZones.xml"),
+                    new File(supplementalDirectory, "likelySubtags.xml"));
+        }
+
         /**
          * Return the Sections and Pages that are in defined, for display in
          * menus. Both are ordered.
@@ -0,0 +1,83 @@
+package org.unicode.cldr.util;
+
+import java.util.AbstractSet;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Immutable set of distinguishing xpaths, held as a bitset of their PathIdTable IDs. This takes a bit per path in the
+ * table rather than an entry per path, so one instance can cheaply be shared by many files (see
+ * CLDRFile.getRawExtraPaths). Iteration is in ID order.
+ */
+public final class PathIdSet extends AbstractSet<String> {
+    private final BitSet ids; // never modified after construction
+    private final int size;
+
+    /**
+     * Create a set from the IDs of the paths; the bitset is copied.
+     */
+    public PathIdSet(BitSet ids) {
+        this.ids = (BitSet) ids.clone();
+        this.size = this.ids.cardinality();
+    }
+
+    /**
+     * Create a set of the given paths, assigning IDs to any that don't have one yet.
+     */
+    public static PathIdSet of(Iterable<String> paths) {
+        BitSet ids = new BitSet();
+        for (String path : paths) {
+            ids.set(PathIdTable.getId(path));
+        }
+        return new PathIdSet(ids);
+    }
+
+    /**
+     * Return a copy of the IDs in the set.
+     */
+    public BitSet getIds() {
+        return (BitSet) ids.clone();
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        if (!(o instanceof String)) {
+            return false;
+        }
+        int id = PathIdTable.getExistingId((String) o);
+        return id >= 0 && ids.get(id);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Iterator<String> iterator() {
+        return new Iterator<String>() {
+            int next = ids.nextSetBit(0);
+
+            @Override
+            public boolean hasNext() {
+                return next >= 0;
+            }
+
+            @Override
+            public String next() {
+                if (next < 0) {
+                    throw new NoSuchElementException();
+                }
+                String result = PathIdTable.getPath(next);
+                next = ids.nextSetBit(next + 1);
+                return result;
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException("Attempt to modify locked object");
+            }
+        };
+    }
+}
@@ -0,0 +1,84 @@
+package org.unicode.cldr.util;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process-wide, append-only table mapping each distinguishing xpath to a dense int ID (0, 1, 2, ...), and back.
+ * IDs are never reused or removed, so they can be used as array indexes and as compact keys in place of the path
+ * strings. Lookups don't block; only the assignment of a new ID takes a lock.
+ * <p>
+ * Since the table only grows, only give it paths from a bounded set, such as the extra paths that PathIdSet holds
+ * for CLDRFile.getRawExtraPaths. XMLSources are not keyed on these IDs: every path of every file ever loaded would
+ * then stay in the table for the life of the process.
+ */
+public final class PathIdTable {
+    private static final int CHUNK_BITS = 12;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private static final ConcurrentHashMap<String, Integer> pathToId = new ConcurrentHashMap<String, Integer>();
+    /**
+     * id => path, in fixed-size chunks so that growing never copies the paths. Written only under the class lock.
+     */
+    private static volatile String[][] idToPath = new String[16][];
+    private static volatile int size = 0;
+
+    private PathIdTable() {
+    }
+
+    /**
+     * Get the ID for a distinguishing xpath, assigning a new one if the path hasn't been seen before.
+     */
+    public static int getId(String distinguishingXPath) {
+        Integer id = pathToId.get(distinguishingXPath);
+        return id != null ? id : addPath(distinguishingXPath);
+    }
+
+    /**
+     * Get the ID for a distinguishing xpath, or -1 if it doesn't have one yet.
+     */
+    public static int getExistingId(String distinguishingXPath) {
+        Integer id = pathToId.get(distinguishingXPath);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Get the distinguishing xpath for an ID returned by getId.
+     */
+    public static String getPath(int id) {
+        if (id < 0 || id >= size) {
+            throw new IllegalArgumentException("No path with id " + id);
+        }
+        return idToPath[id >>> CHUNK_BITS][id & CHUNK_MASK];
+    }
+
+    /**
+     * The number of IDs assigned so far; all IDs are less than this.
+     */
+    public static int size() {
+        return size;
+    }
+
+    private static synchronized int addPath(String distinguishingXPath) {
+        Integer id = pathToId.get(distinguishingXPath);
+        if (id != null) {
+            return id;
+        }
+        int newId = size;
+        String[][] chunks = idToPath;
+        int chunk = newId >>> CHUNK_BITS;
+        if (chunk >= chunks.length) {
+            String[][] newChunks = new String[chunks.length * 2][];
+            System.arraycopy(chunks, 0, newChunks, 0, chunks.length);
+            chunks = newChunks;
+        }
+        if (chunks[chunk] == null) {
+            chunks[chunk] = new String[CHUNK_SIZE];
+        }
+        chunks[chunk][newId & CHUNK_MASK] = distinguishingXPath;
+        idToPath = chunks;
+        size = newId + 1; // publishes the path before the id is visible
+        pathToId.put(distinguishingXPath, newId);
+        return newId;
+    }
+}
@@ -0,0 +1,60 @@
+package org.unicode.cldr.util;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Sorted array of the paths in a source that doesn't change, for XMLSource.iterator(prefix). The paths starting with a
+ * prefix are contiguous in code point order, so a binary search finds the first one, and iteration stops at the first
+ * path that doesn't match: the cost is O(log n + matches) rather than a pass over every path.
+ */
+final class PrefixIndex {
+    private final String[] paths;
+
+    PrefixIndex(Iterator<String> it) {
+        String[] result = new String[16];
+        int count = 0;
+        while (it.hasNext()) {
+            if (count == result.length) {
+                result = Arrays.copyOf(result, count * 2);
+            }
+            result[count++] = it.next();
+        }
+        paths = Arrays.copyOf(result, count);
+        Arrays.sort(paths);
+    }
+
+    int size() {
+        return paths.length;
+    }
+
+    /**
+     * Iterate over the paths starting with the prefix, in code point order.
+     */
+    Iterator<String> iterator(final String prefix) {
+        int start = Arrays.binarySearch(paths, prefix);
+        final int first = start >= 0 ? start : -start - 1;
+        return new Iterator<String>() {
+            int next = first;
+
+            @Override
+            public boolean hasNext() {
+                return next < paths.length && paths[next].startsWith(prefix);
+            }
+
+            @Override
+            public String next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return paths[next++];
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException("Attempt to modify locked object");
+            }
+        };
+    }
+}
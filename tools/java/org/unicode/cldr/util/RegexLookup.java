@@ -1,9 +1,12 @@
 package org.unicode.cldr.util;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -39,10 +42,16 @@ public class RegexLookup<T> implements Iterable<Map.Entry<Finder, T>> {
     private Transform<String, ? extends T> valueTransform;
     private Merger<T> valueMerger;
     private final boolean allowNull = false;
-    private static PathStarrer pathStarrer = new PathStarrer().setSubstitutionPattern("*");
+    // PathStarrer keeps state between calls, so each thread has its own
+    private static final ThreadLocal<PathStarrer> pathStarrer = new ThreadLocal<PathStarrer>() {
+        @Override
+        protected PathStarrer initialValue() {
+            return new PathStarrer().setSubstitutionPattern("*");
+        }
+    };
 
     public enum LookupType {
-        STAR_PATTERN_LOOKUP, OPTIMIZED_DIRECTORY_PATTERN_LOOKUP, STANDARD
+        STAR_PATTERN_LOOKUP, OPTIMIZED_DIRECTORY_PATTERN_LOOKUP, STANDARD, PREFIX_TRIE_LOOKUP
     };
 
     private LookupType _lookupType;
@@ -67,6 +76,14 @@ public class RegexLookup<T> implements Iterable<Map.Entry<Finder, T>> {
      * However regex's no longer need to follow any specific format (Slower but more versatile).
      */
 
+    /*
+     * PREFIX_TRIE_LOOKUP
+     *
+     * Same results as STANDARD (the first regex added that matches wins), for any regex's. The literal prefixes of
+     * regex's anchored with ^ (see Finder.getLiteralPrefix) are combined in a trie, so a single pass over the path
+     * finds the few regex's that can match it, and only those are tried.
+     */
+
     public RegexLookup(LookupType type) {
         _lookupType = type;
         switch (type) {
@@ -78,6 +95,9 @@ public class RegexLookup<T> implements Iterable<Map.Entry<Finder, T>> {
             //   RTEntries = new RegexTree<T>();
             storage = new RegexTree<T>();
             break;
+        case PREFIX_TRIE_LOOKUP:
+            storage = new PrefixTrie<T>();
+            break;
         default:
             MEntries = new LinkedHashMap<Finder, T>();
             break;
@@ -106,23 +126,32 @@ public class RegexLookup<T> implements Iterable<Map.Entry<Finder, T>> {
         public int getFailPoint(String source) {
             return -1;
         }
-        // must also define toString
-    }
 
-    public static class RegexFinder extends Finder {
         /**
-         * The matcher used by this RegexFinder
+         * A string that every item found by this Finder starts with, used by PREFIX_TRIE_LOOKUP to skip Finders
+         * that can't match. The default, "", is always safe.
          */
-        private final Matcher matcher;
+        public String getLiteralPrefix() {
+            return "";
+        }
+        // must also define toString
+    }
 
+    /**
+     * Finder for a regular expression. It holds only the compiled Pattern, and each call uses its own Matcher, so it
+     * can be used from any number of threads without locking.
+     */
+    public static class RegexFinder extends Finder {
         /**
          * The Pattern used by this RegexFinder
          */
         protected final Pattern pattern;
 
+        private final String literalPrefix;
+
         public RegexFinder(String pattern) {
             this.pattern = Pattern.compile(pattern, Pattern.COMMENTS);
-            matcher = this.pattern.matcher("");
+            literalPrefix = getLiteralPrefix(this.pattern);
         }
 
         /**
@@ -130,17 +159,16 @@ public class RegexLookup<T> implements Iterable<Map.Entry<Finder, T>> {
          * if it is non null
          */
         public boolean matches(String item, Object context, Info info) {
-            synchronized (matcher) {
-                try {
-                    boolean result = matcher.reset(item).matches();
-                    extractInfo(info, result);
-                    return result;
-                } catch (StringIndexOutOfBoundsException e) {
-                    // We don't know what causes this error (cldrbug 5051) so
-                    // make the exception message more detailed.
-                    throw new IllegalArgumentException("Matching error caused by pattern: ["
-                        + matcher.toString() + "] on text: [" + item + "]", e);
-                }
+            Matcher matcher = pattern.matcher(item);
+            try {
+                boolean result = matcher.matches();
+                extractInfo(matcher, info, result);
+                return result;
+            } catch (StringIndexOutOfBoundsException e) {
+                // We don't know what causes this error (cldrbug 5051) so
+                // make the exception message more detailed.
+                throw new IllegalArgumentException("Matching error caused by pattern: ["
+                    + matcher.toString() + "] on text: [" + item + "]", e);
             }
         }
 
@@ -150,7 +178,7 @@ public class RegexLookup<T> implements Iterable<Map.Entry<Finder, T>> {
          * @param info
          * @param result
          */
-        private void extractInfo(Info info, boolean result) {
+        private void extractInfo(Matcher matcher, Info info, boolean result) {
             if (result && info != null) {
                 int limit = matcher.groupCount() + 1;
                 String[] value = new String[limit];
@@ -166,22 +194,20 @@ public class RegexLookup<T> implements Iterable<Map.Entry<Finder, T>> {
          * if it is non-null
          */
         public boolean find(String item, Object context, Info info) {
-            synchronized (matcher) {
-                try {
-                    boolean result = matcher.reset(item).find();
-                    extractInfo(info, result);
-                    return result;
-                } catch (StringIndexOutOfBoundsException e) {
-                    // We don't know what causes this error (cldrbug 5051) so
-                    // make the exception message more detailed.
-                    throw new IllegalArgumentException("Matching error caused by pattern: ["
-                        + matcher.toString() + "] on text: [" + item + "]", e);
-                }
+            Matcher matcher = pattern.matcher(item);
+            try {
+                boolean result = matcher.find();
+                extractInfo(matcher, info, result);
+                return result;
+            } catch (StringIndexOutOfBoundsException e) {
+                // We don't know what causes this error (cldrbug 5051) so
+                // make the exception message more detailed.
+                throw new IllegalArgumentException("Matching error caused by pattern: ["
+                    + matcher.toString() + "] on text: [" + item + "]", e);
             }
         }
 
         public String toString() {
-            // Use pattern here, to avoid having to synchronize on matcher
             return pattern.pattern();
         }
 
@@ -201,9 +227,108 @@ public class RegexLookup<T> implements Iterable<Map.Entry<Finder, T>> {
 
         @Override
         public int getFailPoint(String source) {
-            synchronized (matcher) {
-                return RegexUtilities.findMismatch(matcher, source);
+            return RegexUtilities.findMismatch(pattern.matcher(source), source);
+        }
+
+        @Override
+        public String getLiteralPrefix() {
+            return literalPrefix;
+        }
+
+        /**
+         * The literal characters at the start of a pattern anchored with ^, up to the first regex construct, eg
+         * <code>//ldml/dates/calendars/calendar[@type="</code> for
+         * <code>^//ldml/dates/calendars/calendar\[@type="([^"]*)"\]</code>. Returns "" whenever that isn't
+         * clearly a prefix of every match: no anchor, flags (other than COMMENTS), or an alternation at the top level.
+         */
+        static String getLiteralPrefix(Pattern pattern) {
+            if ((pattern.flags() & ~Pattern.COMMENTS) != 0) {
+                return "";
+            }
+            boolean comments = (pattern.flags() & Pattern.COMMENTS) != 0;
+            String source = pattern.pattern();
+            if (hasTopLevelAlternation(source, comments)) {
+                return "";
+            }
+            int i = skipIgnorable(source, 0, comments);
+            if (!source.startsWith("^", i)) {
+                return "";
+            }
+            StringBuilder result = new StringBuilder();
+            i = skipIgnorable(source, i + 1, comments);
+            while (i < source.length()) {
+                char c = source.charAt(i);
+                int next = i + 1;
+                if (c == '\\') {
+                    if (next >= source.length() || Character.isLetterOrDigit(source.charAt(next))) {
+                        break; // \d, \Q, \1, ...
+                    }
+                    c = source.charAt(next++);
+                } else if ("[](){}.*+?|$^".indexOf(c) >= 0) {
+                    break;
+                }
+                if (Character.isSurrogate(c)) {
+                    break;
+                }
+                next = skipIgnorable(source, next, comments);
+                if (next < source.length() && "?*{+".indexOf(source.charAt(next)) >= 0) {
+                    // the character is optional or repeated; with + it still has to occur once
+                    if (source.charAt(next) == '+') {
+                        result.append(c);
+                    }
+                    break;
+                }
+                result.append(c);
+                i = next;
+            }
+            return result.toString();
+        }
+
+        private static int skipIgnorable(String source, int i, boolean comments) {
+            if (comments) {
+                while (i < source.length() && " \t\n\u000B\f\r".indexOf(source.charAt(i)) >= 0) {
+                    ++i;
+                }
+            }
+            return i;
+        }
+
+        /**
+         * Conservative: also true for a pattern it can't follow, such as one with a comment.
+         */
+        private static boolean hasTopLevelAlternation(String source, boolean comments) {
+            int groupDepth = 0;
+            int classDepth = 0;
+            for (int i = 0; i < source.length(); ++i) {
+                char c = source.charAt(i);
+                if (c == '\\') {
+                    if (source.startsWith("Q", i + 1)) {
+                        int end = source.indexOf("\\E", i + 2);
+                        if (end < 0) {
+                            return false; // literal to the end
+                        }
+                        i = end;
+                    }
+                    ++i; // skip the escaped character
+                } else if (comments && c == '#') {
+                    return true;
+                } else if (classDepth > 0) {
+                    if (c == '[') {
+                        ++classDepth;
+                    } else if (c == ']') {
+                        --classDepth;
+                    }
+                } else if (c == '[') {
+                    classDepth = 1;
+                } else if (c == '(') {
+                    ++groupDepth;
+                } else if (c == ')') {
+                    --groupDepth;
+                } else if (c == '|' && groupDepth <= 0) {
+                    return true;
+                }
             }
+            return false;
         }
     }
 
@@ -260,22 +385,12 @@ public class RegexLookup<T> implements Iterable<Map.Entry<Finder, T>> {
             List<RTNode> list = new ArrayList<RTNode>();
             List<T> retList = new ArrayList<T>();
 
-            root.addToList(pattern, context, list);
+            Map<RTNode, String[]> infos = new IdentityHashMap<RTNode, String[]>();
+            root.addToList(pattern, context, list, infos);
             Collections.sort(list, rankComparator);
 
-            boolean isFirst = true;
             if (firstInfo != null && !list.isEmpty()) {
-                RTNode firstNode = list.get(0);
-                if (firstNode._info != null) {
-                    firstInfo.value = firstNode._info.value;
-                }
-            }
-
-            for (RTNode n : list) {
-                if (isFirst) {
-                    firstInfo.value = n._info.value;
-                    isFirst = false;
-                }
+                firstInfo.value = infos.get(list.get(0));
             }
 
             for (RTNode n : list) {
@@ -336,7 +451,6 @@ public class RegexLookup<T> implements Iterable<Map.Entry<Finder, T>> {
 //                _finder = new RegexFinder(key);
 //                _val = val;
 //                _rank = -1;
-                _info = new Info();
             }
 
             public void put(RTNode node) {
@@ -465,36 +579,21 @@ public class RegexLookup<T> implements Iterable<Map.Entry<Finder, T>> {
             }
 
             //traverse tree to get list of all values who's key matcher matches pattern
-            public void addToList(String pattern, Object context, List<RTNode> list) {
+            //the match info of each node found is put in infos, rather than in the (shared) node
+            public void addToList(String pattern, Object context, List<RTNode> list, Map<RTNode, String[]> infos) {
                 if (_children.size() == 0) {
                     return;
                 } else {
-                    Info firstInfo = new Info();
                     for (RTNode child : _children) {
-                        boolean found;
-                        synchronized (child._finder) {
-                            found = child._finder.find(pattern, context, firstInfo);
-                        }
-
+                        Info firstInfo = new Info();
                         //check if child matches pattern
-                        if (found) {
+                        if (child._finder.find(pattern, context, firstInfo)) {
                             if (child._rank != -1) {
                                 list.add(child);
                             }
-                            // if this node's info value is unset, set it to the result of the
-                            // lookup
-//                            if (child._info!=null && child._info.value==null) {
-                            if (child._info != null) {
-                                // set the value to the result of the last find
-                                child._info.value = firstInfo.value;
-                            } else {
-                                // for some reason, child._info is null, so simply initialize it.
-                                child._info = new Info();
-                                // set the value to the result of the last find
-                                child._info.value = firstInfo.value;
-                            }
+                            infos.put(child, firstInfo.value);
                             //check if child is the parent of node then enter that node
-                            child.addToList(pattern, context, list);
+                            child.addToList(pattern, context, list, infos);
                         }
                     }
                 }
@@ -562,7 +661,7 @@ public class RegexLookup<T> implements Iterable<Map.Entry<Finder, T>> {
 
         public void put(Finder pattern, T value) {
             //System.out.println("pattern.toString() is => "+pattern.toString());
-            String starPattern = pathStarrer.transform2(pattern.toString().replaceAll("\\(\\[\\^\"\\]\\*\\)", "*"));
+            String starPattern = pathStarrer.get().transform2(pattern.toString().replaceAll("\\(\\[\\^\"\\]\\*\\)", "*"));
             //System.out.println("Putting => "+starPattern);
             List<SPNode> candidates = _spmap.get(starPattern);
             if (candidates == null) {
@@ -575,7 +674,7 @@ public class RegexLookup<T> implements Iterable<Map.Entry<Finder, T>> {
         }
 
         public T get(Finder finder) {
-            String starPattern = pathStarrer.transform2(finder.toString());
+            String starPattern = pathStarrer.get().transform2(finder.toString());
             List<SPNode> candidates = _spmap.get(starPattern);
             if (candidates == null) {
                 return null;
@@ -592,7 +691,7 @@ public class RegexLookup<T> implements Iterable<Map.Entry<Finder, T>> {
             List<SPNode> list = new ArrayList<SPNode>();
             List<T> retList = new ArrayList<T>();
 
-            String starPattern = pathStarrer.transform2(pattern);
+            String starPattern = pathStarrer.get().transform2(pattern);
             List<SPNode> candidates = _spmap.get(starPattern);
             if (candidates == null) {
                 return retList;
@@ -665,7 +764,145 @@ public class RegexLookup<T> implements Iterable<Map.Entry<Finder, T>> {
     }
 
     /**
-     * The basic class of an information node, featuring a Finder, a value and an Info
+     * Storage for PREFIX_TRIE_LOOKUP. Each Finder is put in a trie under its literal prefix, so one pass over the
+     * characters of an item collects the only Finders that can match it; those are then tried in the order they were
+     * added. The first that matches wins, as with STANDARD.
+     */
+    private static class PrefixTrie<T> implements StorageInterfaceBase<T> {
+        private final Map<Finder, T> entries = new LinkedHashMap<Finder, T>();
+        private final List<Finder> finders = new ArrayList<Finder>(); // in the order added
+        private final List<T> values = new ArrayList<T>();
+        private final PTNode root = new PTNode();
+
+        /**
+         * A trie node: the Finders (by index) whose prefix ends here, and the children, with their keys sorted.
+         */
+        private static class PTNode {
+            private static final int[] NO_FINDERS = new int[0];
+            private static final char[] NO_KEYS = new char[0];
+            private static final PTNode[] NO_CHILDREN = new PTNode[0];
+
+            int[] finderIndexes = NO_FINDERS;
+            char[] keys = NO_KEYS;
+            PTNode[] children = NO_CHILDREN;
+
+            PTNode getChild(char key) {
+                int i = Arrays.binarySearch(keys, key);
+                return i < 0 ? null : children[i];
+            }
+
+            PTNode addChild(char key) {
+                int i = Arrays.binarySearch(keys, key);
+                if (i >= 0) {
+                    return children[i];
+                }
+                i = -i - 1;
+                char[] newKeys = new char[keys.length + 1];
+                PTNode[] newChildren = new PTNode[keys.length + 1];
+                System.arraycopy(keys, 0, newKeys, 0, i);
+                System.arraycopy(children, 0, newChildren, 0, i);
+                newKeys[i] = key;
+                newChildren[i] = new PTNode();
+                System.arraycopy(keys, i, newKeys, i + 1, keys.length - i);
+                System.arraycopy(children, i, newChildren, i + 1, keys.length - i);
+                keys = newKeys;
+                children = newChildren;
+                return newChildren[i];
+            }
+        }
+
+        @Override
+        public int size() {
+            return finders.size();
+        }
+
+        @Override
+        public void put(Finder pattern, T value) {
+            PTNode node = root;
+            String prefix = pattern.getLiteralPrefix();
+            for (int i = 0; i < prefix.length(); ++i) {
+                node = node.addChild(prefix.charAt(i));
+            }
+            node.finderIndexes = Arrays.copyOf(node.finderIndexes, node.finderIndexes.length + 1);
+            node.finderIndexes[node.finderIndexes.length - 1] = finders.size();
+            finders.add(pattern);
+            values.add(value);
+            entries.put(pattern, value);
+        }
+
+        @Override
+        public T get(Finder finder) {
+            return entries.get(finder);
+        }
+
+        /**
+         * The indexes of the Finders whose prefix the item starts with.
+         */
+        private BitSet getCandidates(String item) {
+            BitSet result = new BitSet(finders.size());
+            PTNode node = root;
+            for (int i = 0;; ++i) {
+                for (int index : node.finderIndexes) {
+                    result.set(index);
+                }
+                if (i >= item.length() || (node = node.getChild(item.charAt(i))) == null) {
+                    return result;
+                }
+            }
+        }
+
+        @Override
+        public List<T> getAll(String pattern, Object context, List<Finder> matcherList, Output<String[]> firstInfo) {
+            List<T> retList = new ArrayList<T>();
+            BitSet candidates = getCandidates(pattern);
+            for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+                Finder finder = finders.get(i);
+                Info info = new Info();
+                if (finder.find(pattern, context, info)) {
+                    if (retList.isEmpty() && firstInfo != null) {
+                        firstInfo.value = info.value;
+                    }
+                    retList.add(values.get(i));
+                    if (matcherList != null) {
+                        matcherList.add(finder);
+                    }
+                }
+            }
+            return retList;
+        }
+
+        @Override
+        public T get(String pattern, Object context, Output<String[]> arguments, Output<Finder> matcherFound) {
+            BitSet candidates = getCandidates(pattern);
+            for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+                Finder finder = finders.get(i);
+                Info info = new Info();
+                if (finder.find(pattern, context, info)) {
+                    if (arguments != null) {
+                        arguments.value = info.value;
+                    }
+                    if (matcherFound != null) {
+                        matcherFound.value = finder;
+                    }
+                    return values.get(i);
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public Set<Entry<Finder, T>> entrySet() {
+            return entries.entrySet();
+        }
+
+        @Override
+        public String toString() {
+            return entries.toString();
+        }
+    }
+
+    /**
+     * The basic class of an information node, featuring a Finder and a value
      *
      * @author ribnitz
      *
@@ -674,7 +911,6 @@ public class RegexLookup<T> implements Iterable<Map.Entry<Finder, T>> {
     private static class NodeBase<T> {
         Finder _finder;
         T _val;
-        Info _info = new Info();
 
         public NodeBase(Finder finder, T value) {
             this._finder = finder;
@@ -768,15 +1004,14 @@ public class RegexLookup<T> implements Iterable<Map.Entry<Finder, T>> {
                 for (Map.Entry<Finder, T> entry : storage.entrySet()) {
 //                for (Map.Entry<Finder, T> entry : SPEntries.entrySet()) {
                     Finder matcher = entry.getKey();
-                    synchronized (matcher) {
-                        int failPoint = matcher.getFailPoint(source);
-                        String show = source.substring(0, failPoint) + "☹" + source.substring(failPoint) + "\t"
-                            + matcher.toString();
-                        failures.add(show);
-                    }
+                    int failPoint = matcher.getFailPoint(source);
+                    String show = source.substring(0, failPoint) + "☹" + source.substring(failPoint) + "\t"
+                        + matcher.toString();
+                    failures.add(show);
                 }
             }
-        } else if (_lookupType == RegexLookup.LookupType.OPTIMIZED_DIRECTORY_PATTERN_LOOKUP) {
+        } else if (_lookupType == RegexLookup.LookupType.OPTIMIZED_DIRECTORY_PATTERN_LOOKUP
+            || _lookupType == RegexLookup.LookupType.PREFIX_TRIE_LOOKUP) {
             //      T ret = RTEntries.get(source, context, arguments, matcherFound);
             T ret = storage.get(source, context, arguments, matcherFound);
             if (ret != null) {
@@ -787,35 +1022,31 @@ public class RegexLookup<T> implements Iterable<Map.Entry<Finder, T>> {
                 for (Map.Entry<Finder, T> entry : storage.entrySet()) {
 //                for (Map.Entry<Finder, T> entry : RTEntries.entrySet()) {
                     Finder matcher = entry.getKey();
-                    synchronized (matcher) {
-                        int failPoint = matcher.getFailPoint(source);
-                        String show = source.substring(0, failPoint) + "☹" + source.substring(failPoint) + "\t"
-                            + matcher.toString();
-                        failures.add(show);
-                    }
+                    int failPoint = matcher.getFailPoint(source);
+                    String show = source.substring(0, failPoint) + "☹" + source.substring(failPoint) + "\t"
+                        + matcher.toString();
+                    failures.add(show);
                 }
             }
         } else {
             //slow but versatile implementation
             for (Map.Entry<Finder, T> entry : MEntries.entrySet()) {
                 Finder matcher = entry.getKey();
-                synchronized (matcher) {
-                    Info firstInfo = new Info();
-                    if (matcher.find(source, context, firstInfo)) {
-                        if (arguments != null) {
-//                            arguments.value = matcher.getInfo();
-                            arguments.value = firstInfo.value;
-                        }
-                        if (matcherFound != null) {
-                            matcherFound.value = matcher;
-                        }
-                        return entry.getValue();
-                    } else if (failures != null) {
-                        int failPoint = matcher.getFailPoint(source);
-                        String show = source.substring(0, failPoint) + "☹" + source.substring(failPoint) + "\t"
-                            + matcher.toString();
-                        failures.add(show);
+                Info firstInfo = new Info();
+                if (matcher.find(source, context, firstInfo)) {
+                    if (arguments != null) {
+//                        arguments.value = matcher.getInfo();
+                        arguments.value = firstInfo.value;
                     }
+                    if (matcherFound != null) {
+                        matcherFound.value = matcher;
+                    }
+                    return entry.getValue();
+                } else if (failures != null) {
+                    int failPoint = matcher.getFailPoint(source);
+                    String show = source.substring(0, failPoint) + "☹" + source.substring(failPoint) + "\t"
+                        + matcher.toString();
+                    failures.add(show);
                 }
             }
         }
@@ -852,16 +1083,15 @@ public class RegexLookup<T> implements Iterable<Map.Entry<Finder, T>> {
                 for (Map.Entry<Finder, T> entry : storage.entrySet()) {
 //                for (Map.Entry<Finder, T> entry : SPEntries.entrySet()) {
                     Finder matcher = entry.getKey();
-                    synchronized (matcher) {
-                        int failPoint = matcher.getFailPoint(source);
-                        String show = source.substring(0, failPoint) + "☹" + source.substring(failPoint) + "\t"
-                            + matcher.toString();
-                        failures.add(show);
-                    }
+                    int failPoint = matcher.getFailPoint(source);
+                    String show = source.substring(0, failPoint) + "☹" + source.substring(failPoint) + "\t"
+                        + matcher.toString();
+                    failures.add(show);
                 }
             }
             return null;
-        } else if (_lookupType == RegexLookup.LookupType.OPTIMIZED_DIRECTORY_PATTERN_LOOKUP) {
+        } else if (_lookupType == RegexLookup.LookupType.OPTIMIZED_DIRECTORY_PATTERN_LOOKUP
+            || _lookupType == RegexLookup.LookupType.PREFIX_TRIE_LOOKUP) {
             Output<String[]> info = new Output<>();
 //            List<T> matches = RTEntries.getAll(source, context, matcherList,info);
             List<T> matches = storage.getAll(source, context, matcherList, info);
@@ -873,12 +1103,10 @@ public class RegexLookup<T> implements Iterable<Map.Entry<Finder, T>> {
                 for (Map.Entry<Finder, T> entry : storage.entrySet()) {
 //                for (Map.Entry<Finder, T> entry : RTEntries.entrySet()) {
                     Finder matcher = entry.getKey();
-                    synchronized (matcher) {
-                        int failPoint = matcher.getFailPoint(source);
-                        String show = source.substring(0, failPoint) + "☹" + source.substring(failPoint) + "\t"
-                            + matcher.toString();
-                        failures.add(show);
-                    }
+                    int failPoint = matcher.getFailPoint(source);
+                    String show = source.substring(0, failPoint) + "☹" + source.substring(failPoint) + "\t"
+                        + matcher.toString();
+                    failures.add(show);
                 }
             }
             return null;
@@ -920,6 +1148,7 @@ public class RegexLookup<T> implements Iterable<Map.Entry<Finder, T>> {
             entrySet = storage.entrySet();
             break;
         case OPTIMIZED_DIRECTORY_PATTERN_LOOKUP:
+        case PREFIX_TRIE_LOOKUP:
 //            entrySet = RTEntries.entrySet();
             entrySet = storage.entrySet();
             break;
@@ -1067,6 +1296,7 @@ public class RegexLookup<T> implements Iterable<Map.Entry<Finder, T>> {
         switch (_lookupType) {
         case STAR_PATTERN_LOOKUP: // fallthrough
         case OPTIMIZED_DIRECTORY_PATTERN_LOOKUP:
+        case PREFIX_TRIE_LOOKUP:
             old = storage.get(pattern);
 //            old = SPEntries.get(pattern);
             break;
@@ -1083,6 +1313,7 @@ public class RegexLookup<T> implements Iterable<Map.Entry<Finder, T>> {
             switch (_lookupType) {
             case STAR_PATTERN_LOOKUP: // fallthrough
             case OPTIMIZED_DIRECTORY_PATTERN_LOOKUP:
+            case PREFIX_TRIE_LOOKUP:
                 storage.put(pattern, target);
 //                SPEntries.put(pattern, target);
                 break;
@@ -1108,6 +1339,7 @@ public class RegexLookup<T> implements Iterable<Map.Entry<Finder, T>> {
         switch (_lookupType) {
         case STAR_PATTERN_LOOKUP: // fall through
         case OPTIMIZED_DIRECTORY_PATTERN_LOOKUP:
+        case PREFIX_TRIE_LOOKUP:
 //            return Collections.unmodifiableCollection(SPEntries.entrySet()).iterator();
             return Collections.unmodifiableCollection(storage.entrySet()).iterator();
 //        case OPTIMIZED_DIRECTORY_PATTERN_LOOKUP:
@@ -1147,6 +1379,7 @@ public class RegexLookup<T> implements Iterable<Map.Entry<Finder, T>> {
         switch (_lookupType) {
         case STAR_PATTERN_LOOKUP: // fall through
         case OPTIMIZED_DIRECTORY_PATTERN_LOOKUP:
+        case PREFIX_TRIE_LOOKUP:
 //            return SPEntries.size();
             return storage.size();
 //        case OPTIMIZED_DIRECTORY_PATTERN_LOOKUP:
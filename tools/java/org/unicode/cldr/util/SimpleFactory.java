@@ -11,15 +11,20 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 import java.util.regex.Matcher;
 
 import org.unicode.cldr.util.CLDRFile.DraftStatus;
 
+import com.google.common.base.Throwables;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableList.Builder;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.ExecutionError;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import com.ibm.icu.util.ICUUncheckedIOException;
 
 public class SimpleFactory extends Factory {
@@ -480,7 +485,7 @@ public class SimpleFactory extends Factory {
      * use clone().
      */
     @SuppressWarnings("unchecked")
-    public CLDRFile handleMake(String localeName, boolean resolved, DraftStatus minimalDraftStatus) {
+    public CLDRFile handleMake(final String localeName, final boolean resolved, final DraftStatus minimalDraftStatus) {
         @SuppressWarnings("rawtypes")
         final Map mapToSynchronizeOn;
         final List<File> parentDirs = getSourceDirectoriesForLocale(localeName);
@@ -515,6 +520,16 @@ public class SimpleFactory extends Factory {
             }
             return result;
         }
+        if (!USE_OLD_HANDLEMAKE_CODE) {
+            // Only the key being loaded is locked, so different locales can be loaded in parallel (see makeAll),
+            // while each is still loaded only once.
+            return getCachedFile((CLDRCacheKey) cacheKey, new Callable<CLDRFile>() {
+                @Override
+                public CLDRFile call() {
+                    return loadFile(localeName, resolved, minimalDraftStatus, parentDirs);
+                }
+            });
+        }
 //        synchronized (cache) {
         synchronized (mapToSynchronizeOn) {
             // Check cache twice to ensure that CLDRFile is only loaded once
@@ -531,24 +546,7 @@ public class SimpleFactory extends Factory {
                 }
                 return result;
             }
-            if (resolved) {
-                result = new CLDRFile(makeResolvingSource(localeName, minimalDraftStatus));
-            } else {
-                if (parentDirs != null) {
-                    if (DEBUG_SIMPLEFACTORY) {
-                        StringBuilder sb = new StringBuilder();
-                        sb.append("HandleMake: Calling makeFile with locale: ");
-                        sb.append(localeName);
-                        sb.append(", parentDir: ");
-                        sb.append(parentDirs);
-                        sb.append(", DraftStatus: ");
-                        sb.append(minimalDraftStatus);
-                        System.out.println(sb.toString());
-                    }
-                    result = makeFile(localeName, parentDirs, minimalDraftStatus);
-                    result.freeze();
-                }
-            }
+            result = loadFile(localeName, resolved, minimalDraftStatus, parentDirs);
             if (result != null) {
                 mapToSynchronizeOn.put(cacheKey, result);
                 //                combinedCache.put(cacheKey, result);
@@ -558,6 +556,99 @@ public class SimpleFactory extends Factory {
         }
     }
 
+    /**
+     * Build a resolved file directly from the already-loaded unresolved sources, rather than going through handleMake
+     * for each parent again (which could reparse a parent that had dropped out of the cache).
+     */
+    @Override
+    protected CLDRFile makeResolved(String localeID, final List<XMLSource> unresolvedChain, DraftStatus minimalDraftStatus) {
+        final List<File> parentDirs = getSourceDirectoriesForLocale(localeID);
+        if (parentDirs == null || USE_OLD_HANDLEMAKE_CODE) {
+            return super.makeResolved(localeID, unresolvedChain, minimalDraftStatus);
+        }
+        return getCachedFile(new CLDRCacheKey(localeID, true, minimalDraftStatus, parentDirs), new Callable<CLDRFile>() {
+            @Override
+            public CLDRFile call() {
+                return new CLDRFile(makeResolvingSource(unresolvedChain));
+            }
+        });
+    }
+
+    private CLDRFile getCachedFile(CLDRCacheKey cacheKey, Callable<CLDRFile> loader) {
+        try {
+            return combinedCache.get(cacheKey, loader);
+        } catch (ExecutionException | UncheckedExecutionException | ExecutionError e) {
+            // pass on whatever the load threw
+            Throwables.throwIfUnchecked(e.getCause());
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private CLDRFile loadFile(String localeName, boolean resolved, DraftStatus minimalDraftStatus, List<File> parentDirs) {
+        CLDRFile result = null;
+        if (resolved) {
+            result = new CLDRFile(makeResolvingSource(localeName, minimalDraftStatus));
+        } else {
+            if (parentDirs != null) {
+                if (DEBUG_SIMPLEFACTORY) {
+                    StringBuilder sb = new StringBuilder();
+                    sb.append("HandleMake: Calling makeFile with locale: ");
+                    sb.append(localeName);
+                    sb.append(", parentDir: ");
+                    sb.append(parentDirs);
+                    sb.append(", DraftStatus: ");
+                    sb.append(minimalDraftStatus);
+                    System.out.println(sb.toString());
+                }
+                result = makeFileUsingSnapshot(localeName, parentDirs, minimalDraftStatus);
+                result.freeze();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Holder for the directory where binary snapshots of unresolved files (see XMLSourceSnapshot) and of the
+     * supplemental data (see SupplementalDataSnapshot) are kept.
+     * Set with -DCLDR_SNAPSHOT_DIR=...; if not set, snapshots aren't used. Lazy, so that CLDRConfig isn't touched
+     * during class initialization.
+     */
+    static class SnapshotDirectory {
+        static final File DIRECTORY;
+        static {
+            String dir = CldrUtility.getProperty("CLDR_SNAPSHOT_DIR", null);
+            DIRECTORY = dir == null ? null : new File(dir);
+        }
+    }
+
+    /**
+     * Like makeFile, but if a snapshot directory is set, loads from a binary snapshot of the locale when all its
+     * source files are unchanged, and otherwise parses the XML and writes a snapshot for next time.
+     */
+    private static CLDRFile makeFileUsingSnapshot(String localeName, List<File> dirs, DraftStatus minimalDraftStatus) {
+        File snapshotDirectory = SnapshotDirectory.DIRECTORY;
+        if (snapshotDirectory == null) {
+            return makeFile(localeName, dirs, minimalDraftStatus);
+        }
+        List<File> sourceFiles = new ArrayList<>();
+        for (File dir : dirs) {
+            sourceFiles.add(makeFileName(localeName, dir));
+        }
+        File snapshotFile = XMLSourceSnapshot.getSnapshotFile(snapshotDirectory, dirs, localeName, minimalDraftStatus);
+        CLDRFile result = XMLSourceSnapshot.read(snapshotFile, sourceFiles);
+        if (result == null) {
+            result = makeFile(localeName, dirs, minimalDraftStatus);
+            try {
+                XMLSourceSnapshot.write(snapshotFile, sourceFiles, result);
+            } catch (ICUUncheckedIOException e) {
+                System.err.println("WARNING: " + e.getMessage()); // the snapshot is only an optimization
+            }
+        } else if (DEBUG_SIMPLEFACTORY) {
+            System.out.println("HandleMake: loaded " + localeName + " from snapshot " + snapshotFile);
+        }
+        return result;
+    }
+
     /**
      * Produce a CLDRFile from a localeName, given a directory.
      *
@@ -1,16 +1,16 @@
 package org.unicode.cldr.util;
 
 import java.util.Collections;
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 
 import org.unicode.cldr.util.XPathParts.Comments;
 
-import com.ibm.icu.impl.Relation;
+import com.google.common.base.Predicate;
+import com.google.common.collect.Iterables;
 import com.ibm.icu.text.Normalizer2;
 import com.ibm.icu.text.UnicodeSet;
 import com.ibm.icu.util.VersionInfo;
@@ -19,9 +19,13 @@ public class SimpleXMLSource extends XMLSource {
     private Map<String, String> xpath_value = CldrUtility.newConcurrentHashMap();
     private Map<String, String> xpath_fullXPath = CldrUtility.newConcurrentHashMap();
     private Comments xpath_comments = new Comments(); // map from paths to comments.
-    private Relation<String, String> VALUE_TO_PATH = null;
+    // normalized value to paths; built on first use, then kept up to date by changes. Only built under the mutex.
+    private volatile ConcurrentHashMap<String, Set<String>> VALUE_TO_PATH = null;
     private Object VALUE_TO_PATH_MUTEX = new Object();
     private VersionInfo dtdVersionInfo;
+    private transient volatile PrefixIndex prefixIndex; // built on demand once frozen; see iterator(String)
+    // for a shallow copy, the source whose maps it shares, which can still change them and keeps the value index
+    private SimpleXMLSource dataOwner;
 
     public SimpleXMLSource(String localeID) {
         this.setLocaleID(localeID);
@@ -37,6 +41,7 @@ public class SimpleXMLSource extends XMLSource {
         this.xpath_fullXPath = copyAsLockedFrom.xpath_fullXPath;
         this.xpath_comments = copyAsLockedFrom.xpath_comments;
         this.setLocaleID(copyAsLockedFrom.getLocaleID());
+        dataOwner = copyAsLockedFrom.dataOwner != null ? copyAsLockedFrom.dataOwner : copyAsLockedFrom;
         locked = true;
     }
 
@@ -73,13 +78,30 @@ public class SimpleXMLSource extends XMLSource {
         String oldValue = xpath_value.get(distinguishingXPath);
         xpath_value.remove(distinguishingXPath);
         xpath_fullXPath.remove(distinguishingXPath);
+        prefixIndex = null;
         updateValuePathMapping(distinguishingXPath, oldValue, null);
+        notifyListeners(distinguishingXPath);
     }
 
     public Iterator<String> iterator() { // must be unmodifiable or locked
         return Collections.unmodifiableSet(xpath_value.keySet()).iterator();
     }
 
+    /**
+     * Once the source is frozen, prefix scans use a sorted index of the paths, so they only visit the matches.
+     */
+    @Override
+    public Iterator<String> iterator(String prefix) {
+        if (prefix == null || prefix.length() == 0 || !locked || dataOwner != null) {
+            return super.iterator(prefix);
+        }
+        PrefixIndex index = prefixIndex;
+        if (index == null) {
+            prefixIndex = index = new PrefixIndex(iterator());
+        }
+        return index.iterator(prefix);
+    }
+
     public XMLSource freeze() {
         locked = true;
         return this;
@@ -90,6 +112,10 @@ public class SimpleXMLSource extends XMLSource {
         result.xpath_comments = (Comments) result.xpath_comments.clone();
         result.xpath_fullXPath = CldrUtility.newConcurrentHashMap(result.xpath_fullXPath);
         result.xpath_value = CldrUtility.newConcurrentHashMap(result.xpath_value);
+        result.prefixIndex = null;
+        result.dataOwner = null;
+        result.VALUE_TO_PATH = null;
+        result.VALUE_TO_PATH_MUTEX = new Object();
         return result;
     }
 
@@ -100,51 +126,98 @@ public class SimpleXMLSource extends XMLSource {
     public void putValueAtDPath(String distinguishingXPath, String value) {
         String oldValue = xpath_value.get(distinguishingXPath);
         xpath_value.put(distinguishingXPath, value);
+        prefixIndex = null;
         updateValuePathMapping(distinguishingXPath, oldValue, value);
+        notifyListeners(distinguishingXPath);
     }
 
     private void updateValuePathMapping(String distinguishingXPath, String oldValue, String newValue) {
-        synchronized (VALUE_TO_PATH_MUTEX) {
-            if (VALUE_TO_PATH != null) {
-                if (oldValue != null) {
-                    VALUE_TO_PATH.remove(normalize(oldValue), distinguishingXPath);
-                }
-                if (newValue != null) {
-                    VALUE_TO_PATH.put(normalize(newValue), distinguishingXPath);
-                }
+        ConcurrentHashMap<String, Set<String>> index = VALUE_TO_PATH;
+        if (index == null) {
+            synchronized (VALUE_TO_PATH_MUTEX) { // wait for any build in progress, which may have missed this change
+                index = VALUE_TO_PATH;
+            }
+            if (index == null) {
+                return;
+            }
+        }
+        if (oldValue != null) {
+            Set<String> paths = index.get(normalize(oldValue));
+            if (paths != null) {
+                paths.remove(distinguishingXPath);
             }
         }
+        if (newValue != null) {
+            addValuePath(index, normalize(newValue), distinguishingXPath);
+        }
     }
 
-    @Override
-    public void getPathsWithValue(String valueToMatch, String pathPrefix, Set<String> result) {
-        // build a Relation mapping value to paths, if needed
+    private static void addValuePath(ConcurrentHashMap<String, Set<String>> index, String normalizedValue, String path) {
+        Set<String> paths = index.get(normalizedValue);
+        if (paths == null) {
+            Set<String> old = index.putIfAbsent(normalizedValue, paths = ConcurrentHashMap.<String> newKeySet());
+            if (old != null) {
+                paths = old;
+            }
+        }
+        paths.add(path);
+    }
+
+    /**
+     * Get the map from normalized value to paths, building it if needed. Once built, lookups don't lock. A shallow
+     * copy uses the index of the source it shares its data with, which keeps it up to date.
+     */
+    private Map<String, Set<String>> getValueToPath() {
+        if (dataOwner != null) {
+            return dataOwner.getValueToPath();
+        }
+        ConcurrentHashMap<String, Set<String>> index = VALUE_TO_PATH;
+        if (index != null) {
+            return index;
+        }
         synchronized (VALUE_TO_PATH_MUTEX) {
             if (VALUE_TO_PATH == null) {
-                VALUE_TO_PATH = Relation.of(new HashMap<String, Set<String>>(), HashSet.class);
+                index = new ConcurrentHashMap<String, Set<String>>();
                 for (Iterator<String> it = iterator(); it.hasNext();) {
                     String path = it.next();
-                    String value = normalize(getValueAtDPath(path));
-                    VALUE_TO_PATH.put(value, path);
-                }
-            }
-            Set<String> paths = VALUE_TO_PATH.getAll(normalize(valueToMatch));
-            if (paths == null) {
-                return;
-            }
-            if (pathPrefix == null || pathPrefix.length() == 0) {
-                result.addAll(paths);
-                return;
-            }
-            for (String path : paths) {
-                if (path.startsWith(pathPrefix)) {
-                    // if (altPath.originalPath.startsWith(altPrefix.originalPath)) {
-                    result.add(path);
+                    String value = getValueAtDPath(path);
+                    if (value != null) {
+                        addValuePath(index, normalize(value), path);
+                    }
                 }
+                VALUE_TO_PATH = index;
             }
+            return VALUE_TO_PATH;
+        }
+    }
+
+    @Override
+    public void getPathsWithValue(String valueToMatch, String pathPrefix, Set<String> result) {
+        for (String path : getPathsWithValue(valueToMatch, pathPrefix)) {
+            result.add(path);
         }
     }
 
+    /**
+     * Reads the value index directly, without copying the paths or locking.
+     */
+    @Override
+    public Iterable<String> getPathsWithValue(String valueToMatch, final String pathPrefix) {
+        Set<String> paths = getValueToPath().get(normalize(valueToMatch));
+        if (paths == null) {
+            return Collections.emptySet();
+        }
+        if (pathPrefix == null || pathPrefix.length() == 0) {
+            return Collections.unmodifiableSet(paths);
+        }
+        return Iterables.filter(paths, new Predicate<String>() {
+            @Override
+            public boolean apply(String path) {
+                return path.startsWith(pathPrefix);
+            }
+        });
+    }
+
     static final Normalizer2 NFKCCF = Normalizer2.getNFKCCasefoldInstance();
     static final Normalizer2 NFKC = Normalizer2.getNFKCInstance();
 
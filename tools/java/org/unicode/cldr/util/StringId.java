@@ -2,30 +2,70 @@ package org.unicode.cldr.util;
 
 import java.nio.charset.Charset;
 import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
 /**
  * Produce an ID for a string based on a long hash. When used properly, the odds
  * of collision are so low that the ID can be used as a proxy for the
- * original string. The ID is non-negative. The algorithm uses SHA-1 over the
- * UTF-8 bytes in the string. Also provides lookup for long previously generated for string.
+ * original string. The ID is non-negative. By default, the algorithm uses SHA-1 over the
+ * UTF-8 bytes in the string; with -DCLDR_STRINGID_HASH=FAST64 it uses a (non-cryptographic) 64-bit hash
+ * over the UTF-16 code units instead. Also provides lookup for long previously generated for string.
+ * <p>
+ * The IDs differ between the two modes, and IDs are stored outside of CLDR (eg in URLs), so in the FAST64 mode
+ * {@link #addCompatibilityId(CharSequence)} can be used to register the strings whose SHA-1 IDs should still be found by
+ * {@link #getStringFromId(long)}.
  *
  * @author markdavis
  */
 public final class StringId {
-    private static final Map<String, Long> STRING_TO_ID = new ConcurrentHashMap<String, Long>();
-    private static final Map<Long, String> ID_TO_STRING = new ConcurrentHashMap<Long, String>();
-    private static final MessageDigest digest;
+    public enum Hash {
+        /** The first 63 bits of the SHA-1 of the UTF-8 bytes; compatible with the IDs of earlier versions. */
+        SHA1,
+        /** A 63-bit FNV-1a hash of the UTF-16 code units, with a final mix. Much faster, but different IDs. */
+        FAST64
+    }
+
+    /**
+     * The hash used by {@link #getId(CharSequence)}; set with -DCLDR_STRINGID_HASH=...
+     */
+    public static final Hash HASH = Hash.valueOf(CldrUtility.getProperty("CLDR_STRINGID_HASH", Hash.SHA1.toString()));
+
+    /**
+     * Maximum number of strings kept for lookup by ID; set with -DCLDR_STRINGID_CACHE_SIZE=...
+     */
+    private static final int CACHE_SIZE = Integer.parseInt(CldrUtility.getProperty("CLDR_STRINGID_CACHE_SIZE", "500000"));
+
+    private static final Cache<String, Long> STRING_TO_ID = CacheBuilder.newBuilder()
+        .maximumSize(CACHE_SIZE)
+        .concurrencyLevel(16)
+        .build();
+    private static final Cache<Long, String> ID_TO_STRING = CacheBuilder.newBuilder()
+        .maximumSize(CACHE_SIZE)
+        .concurrencyLevel(16)
+        .build();
+    /** SHA-1 IDs of strings registered with addCompatibilityId, used only in the FAST64 mode. */
+    private static final Map<Long, String> COMPATIBILITY_ID_TO_STRING = new ConcurrentHashMap<Long, String>();
+
     private static final Charset UTF_8 = Charset.forName("UTF-8");
-    private static final int RETRY_LIMIT = 9;
-    static {
-        try {
-            digest = MessageDigest.getInstance("SHA-1");
-        } catch (Exception e) {
-            throw new IllegalArgumentException(e); // darn'd checked exceptions
+
+    /**
+     * MessageDigests are not thread-safe, so each thread gets its own.
+     */
+    private static final ThreadLocal<MessageDigest> digest = new ThreadLocal<MessageDigest>() {
+        @Override
+        protected MessageDigest initialValue() {
+            try {
+                return MessageDigest.getInstance("SHA-1");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalArgumentException(e); // darn'd checked exceptions
+            }
         }
-    }
+    };
 
     /**
      * Get the ID for a string.
@@ -35,33 +75,62 @@ public final class StringId {
      * @return a value from 0 to 0x7FFFFFFFFFFFFFFFL.
      */
     public static long getId(CharSequence charSequence) {
+        return getId(charSequence, HASH);
+    }
+
+    /**
+     * Get the ID for a string, with a particular hash. Use for IDs that are stored in files with a fixed format.
+     *
+     * @param string
+     *            input string.
+     * @return a value from 0 to 0x7FFFFFFFFFFFFFFFL.
+     */
+    public static long getId(CharSequence charSequence, Hash hash) {
         String string = charSequence.toString();
-        Long resultLong = STRING_TO_ID.get(string);
-        if (resultLong != null) {
-            return resultLong;
+        long result;
+        if (hash == Hash.SHA1) {
+            Long resultLong = STRING_TO_ID.getIfPresent(string);
+            if (resultLong != null) {
+                return resultLong;
+            }
+            result = getSha1Id(string);
+            STRING_TO_ID.put(string, result);
+        } else {
+            // cheaper to recompute than to cache
+            result = getFast64Id(string);
         }
-        int retryCount = RETRY_LIMIT;
-        while (true) {
-            try {
-                synchronized (digest) {
-                    byte[] hash = digest.digest(string.getBytes(UTF_8));
-                    long result = 0;
-                    for (int i = 0; i < 8; ++i) {
-                        result <<= 8;
-                        result ^= hash[i];
-                    }
-                    // mash the top bit to make things easier
-                    result &= 0x7FFFFFFFFFFFFFFFL;
-                    STRING_TO_ID.put(string, result);
-                    ID_TO_STRING.put(result, string);
-                    return result;
-                }
-            } catch (RuntimeException e) {
-                if (--retryCount < 0) {
-                    throw e;
-                }
+        if (hash == HASH) {
+            if (ID_TO_STRING.getIfPresent(result) == null) {
+                ID_TO_STRING.put(result, string);
             }
         }
+        return result;
+    }
+
+    private static long getSha1Id(String string) {
+        byte[] hash = digest.get().digest(string.getBytes(UTF_8));
+        long result = 0;
+        for (int i = 0; i < 8; ++i) {
+            result <<= 8;
+            result ^= hash[i];
+        }
+        // mash the top bit to make things easier
+        return result & 0x7FFFFFFFFFFFFFFFL;
+    }
+
+    private static long getFast64Id(String string) {
+        long result = 0xcbf29ce484222325L;
+        for (int i = 0; i < string.length(); ++i) {
+            result ^= string.charAt(i);
+            result *= 0x100000001b3L;
+        }
+        // FNV alone leaves the low bits weakly mixed; finish with the MurmurHash3 64-bit mix
+        result ^= result >>> 33;
+        result *= 0xff51afd7ed558ccdL;
+        result ^= result >>> 33;
+        result *= 0xc4ceb9fe1a85ec53L;
+        result ^= result >>> 33;
+        return result & 0x7FFFFFFFFFFFFFFFL;
     }
 
     /**
@@ -76,22 +145,41 @@ public final class StringId {
     }
 
     /**
-     * Get the hex ID for a string.
+     * Get the string for a hex ID, as with getStringFromId.
      *
      * @param string
-     *            input string.
-     * @return a string with the hex value
+     *            the hex value.
+     * @return String previously used to generate the ID, or null if there is none or it was evicted.
      */
     public static String getStringFromHexId(String string) {
         return getStringFromId(Long.parseLong(string, 16));
     }
 
     /**
-     * Returns string previously used to generate the longValue with getId.
+     * Returns string previously used to generate the longValue with getId, or registered with addCompatibilityId.
+     * The strings are kept in a cache of limited size, so a string that was not used for a long time may be missing:
+     * callers must handle null, for example by calling getId again on the strings they expect.
      * @param longValue
-     * @return String previously used to generate the longValue with getId.
+     * @return String previously used to generate the longValue with getId, or null if there is none or it was
+     *         evicted.
      */
     public static String getStringFromId(long longValue) {
-        return ID_TO_STRING.get(longValue);
+        String result = ID_TO_STRING.getIfPresent(longValue);
+        if (result == null && HASH != Hash.SHA1) {
+            result = COMPATIBILITY_ID_TO_STRING.get(longValue);
+        }
+        return result;
+    }
+
+    /**
+     * In the FAST64 mode, record the SHA-1 ID for the string, so that getStringFromId also finds the string from
+     * IDs generated in the SHA1 mode. Does nothing in the SHA1 mode. Entries are never evicted, so only use for a
+     * fixed set of strings, such as the paths loaded by the Survey Tool.
+     * @param string
+     */
+    public static void addCompatibilityId(CharSequence string) {
+        if (HASH != Hash.SHA1) {
+            COMPATIBILITY_ID_TO_STRING.put(getId(string, Hash.SHA1), string.toString());
+        }
     }
-}
\ No newline at end of file
+}
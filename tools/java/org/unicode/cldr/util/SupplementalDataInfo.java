@@ -9,7 +9,6 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Date;
-import java.util.Deque;
 import java.util.EnumMap;
 import java.util.EnumSet;
 import java.util.HashMap;
@@ -28,6 +27,7 @@ import java.util.SortedSet;
 import java.util.TreeMap;
 import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -44,6 +44,8 @@ import org.unicode.cldr.util.SupplementalDataInfo.PluralInfo.Count;
 import org.unicode.cldr.util.Validity.Status;
 
 import com.google.common.base.Splitter;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSetMultimap;
@@ -969,6 +971,11 @@ public class SupplementalDataInfo {
      * Which directory did we come from?
      */
     final private File directory;
+    /**
+     * Where the sections are snapshotted, or null.
+     */
+    final private File snapshotDirectory;
+    final private Map<Section, Long> sectionLoadMillis = new ConcurrentHashMap<Section, Long>();
 
     /**
      * Get an instance chosen using setAsDefaultInstance(), otherwise return an instance using the default directory
@@ -1018,50 +1025,7 @@ public class SupplementalDataInfo {
             //                }
             //            }
             // reaching here means we have not cached the entry
-            File directory = new File(canonicalpath);
-            instance = new SupplementalDataInfo(directory);
-            MyHandler myHandler = instance.new MyHandler();
-            XMLFileReader xfr = new XMLFileReader().setHandler(myHandler);
-            File files1[] = directory.listFiles();
-            if (files1 == null) {
-                throw new InternalError("Could not list XML Files from " + canonicalpath);
-            }
-            if (files1.length == 0) {
-                throw new InternalError("Error: Supplemental files missing from " + directory.getAbsolutePath());
-            }
-            // get bcp47 files also
-            File bcp47dir = instance.getBcp47Directory();
-            if (!bcp47dir.isDirectory()) {
-                throw new InternalError("Error: BCP47 dir is not a directory: " + bcp47dir.getAbsolutePath());
-            }
-            File files2[] = bcp47dir.listFiles();
-            if (files2 == null || files2.length == 0) {
-                throw new InternalError("Error: BCP47 files missing from " + bcp47dir.getAbsolutePath());
-            }
-
-            CBuilder<File, ArrayList<File>> builder = Builder.with(new ArrayList<File>());
-            builder.addAll(files1);
-            builder.addAll(files2);
-            for (File file : builder.get()) {
-                if (DEBUG) {
-                    try {
-                        System.out.println(file.getCanonicalPath());
-                    } catch (IOException e) {
-                    }
-                }
-                String name = file.toString();
-                String shortName = file.getName();
-                if (!shortName.endsWith(".xml") || // skip non-XML
-                    shortName.startsWith("#") || // skip other junk files
-                    shortName.startsWith(".")) continue; // skip dot files (backups, etc)
-                xfr.read(name, -1, true);
-                myHandler.cleanup();
-            }
-
-            // xfr = new XMLFileReader().setHandler(instance.new MyHandler());
-            // .xfr.read(canonicalpath + "/supplementalMetadata.xml", -1, true);
-
-            instance.makeStuffSafe();
+            instance = load(new File(canonicalpath), SimpleFactory.SnapshotDirectory.DIRECTORY);
             // cache
             //            directory_instance.put(supplementalDirectory, instance);
             directory_instance.put(canonicalpath, instance);
@@ -1072,12 +1036,163 @@ public class SupplementalDataInfo {
         }
     }
 
+    /**
+     * Parts of the data that are loaded separately. The core is loaded when an instance is created; the other
+     * sections are each loaded the first time something that needs them is called, so that a tool that only uses
+     * (say) plural rules doesn't parse the coverage data.
+     */
+    public enum Section {
+        /** Everything not in another section. */
+        core,
+        plurals("plurals.xml", "ordinals.xml", "pluralRanges.xml"),
+        likelySubtags("likelySubtags.xml"),
+        coverage("coverageLevels.xml");
+
+        private final Set<String> fileNames;
+
+        private Section(String... fileNames) {
+            this.fileNames = ImmutableSet.copyOf(fileNames);
+        }
+
+        private static Section forFile(File file) {
+            for (Section section : values()) {
+                if (section.fileNames.contains(file.getName())) {
+                    return section;
+                }
+            }
+            return core;
+        }
+    }
+
+    /**
+     * Load a new (uncached) instance from the supplemental directory. Only the core section is loaded now; see
+     * Section. If the snapshot directory isn't null, each section is replayed from a binary snapshot of its XML files
+     * when they are unchanged (see SupplementalDataSnapshot), and otherwise parsed and snapshotted for next time.
+     * Normally called through getInstance, which uses -DCLDR_SNAPSHOT_DIR=... for the snapshot directory.
+     */
+    public static SupplementalDataInfo load(File directory, File snapshotDirectory) {
+        SupplementalDataInfo instance = new SupplementalDataInfo(directory, snapshotDirectory);
+        instance.ensureLoaded(Section.core);
+        return instance;
+    }
+
+    /**
+     * Make sure that a section is loaded. Cheap once it is.
+     */
+    private void ensureLoaded(Section section) {
+        if (!sectionLoadMillis.containsKey(section)) {
+            loadSection(section);
+        }
+    }
+
+    private synchronized void loadSection(Section section) {
+        if (sectionLoadMillis.containsKey(section)) {
+            return;
+        }
+        long start = System.nanoTime();
+        List<File> files = getSourceFiles(section);
+        File snapshotFile = snapshotDirectory == null ? null
+            : SupplementalDataSnapshot.getSnapshotFile(snapshotDirectory, directory, section.toString());
+        boolean fromSnapshot = snapshotFile != null
+            && SupplementalDataSnapshot.read(snapshotFile, files, new MyHandler());
+        if (!fromSnapshot) {
+            MyHandler myHandler = new MyHandler();
+            SupplementalDataSnapshot.Recorder recorder = snapshotFile == null ? null
+                : new SupplementalDataSnapshot.Recorder(myHandler);
+            XMLFileReader xfr = new XMLFileReader().setHandler(recorder == null ? myHandler : recorder);
+            for (File file : files) {
+                if (DEBUG) {
+                    System.out.println(file.getPath());
+                }
+                if (recorder != null) {
+                    recorder.startFile();
+                }
+                xfr.read(file.toString(), -1, true);
+                myHandler.cleanup();
+            }
+            if (recorder != null) {
+                try {
+                    SupplementalDataSnapshot.write(snapshotFile, files, recorder);
+                } catch (ICUUncheckedIOException e) {
+                    System.err.println("WARNING: " + e.getMessage()); // the snapshot is only an optimization
+                }
+            }
+        }
+
+        // xfr = new XMLFileReader().setHandler(instance.new MyHandler());
+        // .xfr.read(canonicalpath + "/supplementalMetadata.xml", -1, true);
+
+        switch (section) {
+        case core:
+            makeStuffSafe();
+            break;
+        case plurals:
+            makePluralsSafe();
+            break;
+        case likelySubtags:
+            likelySubtags = Collections.unmodifiableMap(likelySubtags);
+            break;
+        case coverage:
+            CoverageLevelInfo.fixEU(coverageLevels, this);
+            coverageLevels = Collections.unmodifiableSortedSet(coverageLevels);
+            break;
+        }
+        long millis = (System.nanoTime() - start) / 1000000;
+        if (DEBUG) {
+            System.out.println("Loaded " + section + " from " + directory + (fromSnapshot ? " (snapshot)" : "")
+                + " in " + millis + "ms");
+        }
+        sectionLoadMillis.put(section, millis); // publishes the section's data to other threads
+    }
+
+    /**
+     * Returns how long each section took to load, in milliseconds. Sections not yet loaded are absent.
+     */
+    public Map<Section, Long> getSectionLoadMillis() {
+        return Collections.unmodifiableMap(new EnumMap<Section, Long>(sectionLoadMillis));
+    }
+
+    /**
+     * The XML files read for a section: those in the supplemental directory, then in bcp47.
+     */
+    private List<File> getSourceFiles(Section section) {
+        File files1[] = directory.listFiles();
+        if (files1 == null) {
+            throw new InternalError("Could not list XML Files from " + directory);
+        }
+        if (files1.length == 0) {
+            throw new InternalError("Error: Supplemental files missing from " + directory.getAbsolutePath());
+        }
+        // get bcp47 files also
+        File bcp47dir = getBcp47Directory();
+        if (!bcp47dir.isDirectory()) {
+            throw new InternalError("Error: BCP47 dir is not a directory: " + bcp47dir.getAbsolutePath());
+        }
+        File files2[] = bcp47dir.listFiles();
+        if (files2 == null || files2.length == 0) {
+            throw new InternalError("Error: BCP47 files missing from " + bcp47dir.getAbsolutePath());
+        }
+
+        List<File> result = new ArrayList<File>();
+        for (File file : Builder.with(new ArrayList<File>()).addAll(files1).addAll(files2).get()) {
+            String shortName = file.getName();
+            if (!shortName.endsWith(".xml") || // skip non-XML
+                shortName.startsWith("#") || // skip other junk files
+                shortName.startsWith(".")) continue; // skip dot files (backups, etc)
+            if (Section.forFile(file) == section) {
+                result.add(file);
+            }
+        }
+        return result;
+    }
+
     private File getBcp47Directory() {
         return new File(getDirectory().getParent(), "bcp47");
     }
 
-    private SupplementalDataInfo(File directory) {
+    private SupplementalDataInfo(File directory, File snapshotDirectory) {
         this.directory = directory;
+        this.snapshotDirectory = snapshotDirectory;
     }; // hide
 
     private void makeStuffSafe() {
@@ -1085,12 +1200,10 @@ public class SupplementalDataInfo {
         allLanguages.addAll(languageToPopulation.keySet());
         allLanguages.addAll(baseLanguageToPopulation.keySet());
         allLanguages = Collections.unmodifiableSet(allLanguages);
-        skippedElements = Collections.unmodifiableSet(skippedElements);
         multizone = Collections.unmodifiableSet(multizone);
         zone_territory = Collections.unmodifiableMap(zone_territory);
         alias_zone = Collections.unmodifiableMap(alias_zone);
         references = Collections.unmodifiableMap(references);
-        likelySubtags = Collections.unmodifiableMap(likelySubtags);
         currencyToCurrencyNumberInfo = Collections.unmodifiableMap(currencyToCurrencyNumberInfo);
         territoryToCurrencyDateInfo.freeze();
         // territoryToTelephoneCodeInfo.freeze();
@@ -1141,14 +1254,6 @@ public class SupplementalDataInfo {
                 languageToPopulationDataTemp.get(language).freeze();
             }
         }
-        localeToPluralInfo2.put(PluralType.cardinal, Collections.unmodifiableMap(localeToPluralInfo2.get(PluralType.cardinal)));
-        localeToPluralInfo2.put(PluralType.ordinal, Collections.unmodifiableMap(localeToPluralInfo2.get(PluralType.ordinal)));
-
-        localeToPluralRanges = Collections.unmodifiableMap(localeToPluralRanges);
-        for (PluralRanges pluralRanges : localeToPluralRanges.values()) {
-            pluralRanges.freeze();
-        }
-
         if (lastDayPeriodLocales != null) {
             addDayPeriodInfo();
         }
@@ -1162,9 +1267,6 @@ public class SupplementalDataInfo {
         }
         CldrUtility.protectCollection(bcp47Descriptions);
 
-        CoverageLevelInfo.fixEU(coverageLevels, this);
-        coverageLevels = Collections.unmodifiableSortedSet(coverageLevels);
-
         measurementData = CldrUtility.protectCollection(measurementData);
         timeData = CldrUtility.protectCollection(timeData);
 
@@ -1189,6 +1291,16 @@ public class SupplementalDataInfo {
         CLDRScriptCodes = newScripts.build();
     }
 
+    private void makePluralsSafe() {
+        localeToPluralInfo2.put(PluralType.cardinal, Collections.unmodifiableMap(localeToPluralInfo2.get(PluralType.cardinal)));
+        localeToPluralInfo2.put(PluralType.ordinal, Collections.unmodifiableMap(localeToPluralInfo2.get(PluralType.ordinal)));
+
+        localeToPluralRanges = Collections.unmodifiableMap(localeToPluralRanges);
+        for (PluralRanges pluralRanges : localeToPluralRanges.values()) {
+            pluralRanges.freeze();
+        }
+    }
+
     // private Map<String, Map<String, String>> makeUnmodifiable(Map<String, Map<String, String>>
     // metazoneToRegionToZone) {
     // Map<String, Map<String, String>> temp = metazoneToRegionToZone;
@@ -1991,7 +2103,7 @@ public class SupplementalDataInfo {
         return attributeValue == null ? -1 : Integer.parseInt(attributeValue);
     }
 
-    Set<String> skippedElements = new TreeSet<String>();
+    Set<String> skippedElements = new ConcurrentSkipListSet<String>();
 
     private Map<String, Pair<String, String>> references = new TreeMap<String, Pair<String, String>>();
     private Map<String, String> likelySubtags = new TreeMap<String, String>();
@@ -2118,7 +2230,10 @@ public class SupplementalDataInfo {
     }
 
     public Set<String> getSkippedElements() {
-        return skippedElements;
+        for (Section section : Section.values()) {
+            ensureLoaded(section);
+        }
+        return Collections.unmodifiableSet(skippedElements);
     }
 
     public Set<String> getZone_aliases(String zone) {
@@ -2301,123 +2416,34 @@ public class SupplementalDataInfo {
     }
 
     public SortedSet<CoverageLevelInfo> getCoverageLevelInfo() {
+        ensureLoaded(Section.coverage);
         return coverageLevels;
     }
 
     /**
      * Used to get the coverage value for a path. This is generally the most
-     * efficient way for tools to get coverage.
+     * efficient way for tools to get coverage. The level of each path is
+     * remembered per locale (see CoverageLevelTable), for the most recently
+     * used locales.
      *
      * @param xpath
      * @param loc
      * @return
      */
     public Level getCoverageLevel(String xpath, String loc) {
-        Level result = null;
-        result = coverageCache.get(xpath, loc);
-        if (result == null) {
-            CoverageLevel2 cov = localeToCoverageLevelInfo.get(loc);
-            if (cov == null) {
-                cov = CoverageLevel2.getInstance(this, loc);
-                localeToCoverageLevelInfo.put(loc, cov);
-            }
-
-            result = cov.getLevel(xpath);
-            coverageCache.put(xpath, loc, result);
-        }
-        return result;
+        return getCoverageLevelTable(loc).getLevel(xpath);
     }
 
-    /**
-     * Cache Data structure with object expiry,
-     * List that can hold up to MAX_LOCALES caches of locales, when one locale hasn't been used for a while it will removed and GC'd
-     */
-    private class CoverageCache {
-        private final Deque<Node> localeList = new LinkedList<>();
-        private final int MAX_LOCALES = 10;
-
-        /**
-         * Object to sync on for modifying the locale list
-         */
-        private final Object LOCALE_LIST_ITER_SYNC = new Object();
-
-        /*
-         * constructor
-         */
-        public CoverageCache() {
-//            localeList = new LinkedList<Node>();
-        }
-
-        /*
-         * retrieves coverage level associated with two keys if it exists in the cache, otherwise returns null
-         * @param xpath
-         * @param loc
-         * @return the coverage level of the above two keys
-         */
-        public Level get(String xpath, String loc) {
-            synchronized (LOCALE_LIST_ITER_SYNC) {
-                Iterator<Node> it = localeList.iterator();
-                Node reAddNode = null;
-                while (it.hasNext()) {
-//            for (Iterator<Node> it = localeList.iterator(); it.hasNext();) {
-                    Node node = it.next();
-                    if (node.loc.equals(loc)) {
-                        reAddNode = node;
-                        it.remove();
-                        break;
-
-                    }
-                }
-                if (reAddNode != null) {
-                    localeList.addFirst(reAddNode);
-                    return reAddNode.map.get(xpath);
-                }
-                return null;
-            }
-        }
-
-        /*
-         * places a coverage level into the cache, with two keys
-         * @param xpath
-         * @param loc
-         * @param covLevel    the coverage level of the above two keys
-         */
-        public void put(String xpath, String loc, Level covLevel) {
-            synchronized (LOCALE_LIST_ITER_SYNC) {
-                //if locale's map is already in the cache add to it
-//            for (Iterator<Node> it = localeList.iterator(); it.hasNext();) {
-                for (Node node : localeList) {
-//                Node node = it.next();
-                    if (node.loc.equals(loc)) {
-                        node.map.put(xpath, covLevel);
-                        return;
-                    }
-                }
-
-                //if it is not, add a new map with the coverage level, and remove the last map in the list (used most seldom) if the list is too large
-                Map<String, Level> newMap = new ConcurrentHashMap<String, Level>();
-                newMap.put(xpath, covLevel);
-                localeList.addFirst(new Node(loc, newMap));
-
-                if (localeList.size() > MAX_LOCALES) {
-                    localeList.removeLast();
-                }
-            }
-        }
-
-        /*
-         * node to hold a location and a Map
-         */
-        private class Node {
-            //public fields to emulate a C/C++ struct
-            public String loc;
-            public Map<String, Level> map;
-
-            public Node(String _loc, Map<String, Level> _map) {
-                loc = _loc;
-                map = _map;
+    private CoverageLevelTable getCoverageLevelTable(String loc) {
+        CoverageLevelTable result = localeToCoverageLevelTable.getIfPresent(loc);
+        if (result == null) {
+            result = new CoverageLevelTable(CoverageLevel2.getInstance(this, loc));
+            CoverageLevelTable old = localeToCoverageLevelTable.asMap().putIfAbsent(loc, result);
+            if (old != null) {
+                result = old;
             }
         }
+        return result;
     }
 
     /**
@@ -2436,7 +2462,7 @@ public class SupplementalDataInfo {
 
     public synchronized RegexLookup<Level> getCoverageLookup() {
         if (coverageLookup == null) {
-            RegexLookup<Level> lookup = new RegexLookup<Level>(RegexLookup.LookupType.STAR_PATTERN_LOOKUP);
+            RegexLookup<Level> lookup = new RegexLookup<Level>(RegexLookup.LookupType.PREFIX_TRIE_LOOKUP);
 
             Matcher variable = PatternCache.get("\\$\\{[A-Za-z][\\-A-Za-z]*\\}").matcher("");
 
@@ -2492,7 +2518,7 @@ public class SupplementalDataInfo {
         String targetCurrencyString = toRegexString(cvi.targetCurrencies);
         String targetTimeZoneString = toRegexString(cvi.targetTimeZones);
         String targetPluralsString = toRegexString(cvi.targetPlurals);
-        Iterator<CoverageLevelInfo> i = coverageLevels.iterator();
+        Iterator<CoverageLevelInfo> i = getCoverageLevelInfo().iterator();
         while (i.hasNext()) {
             CoverageLevelInfo ci = i.next();
             String regex = "//ldml/" + ci.match.replace('\'', '"')
@@ -2778,6 +2804,7 @@ public class SupplementalDataInfo {
      * @return
      */
     public int getRequiredVotes(CLDRLocale loc, PathHeader ph) {
+        ensureLoaded(Section.coverage);
         if (approvalMatchers == null) {
             approvalMatchers = ApprovalRequirementMatcher.buildAll(approvalRequirements);
         }
@@ -2900,6 +2927,7 @@ public class SupplementalDataInfo {
     }
 
     public Map<String, String> getLikelySubtags() {
+        ensureLoaded(Section.likelySubtags);
         return likelySubtags;
     }
 
@@ -2931,8 +2959,14 @@ public class SupplementalDataInfo {
 
     private Map<DayPeriodInfo.Type, Map<String, DayPeriodInfo>> typeToLocaleToDayPeriodInfo = new EnumMap<DayPeriodInfo.Type, Map<String, DayPeriodInfo>>(
         DayPeriodInfo.Type.class);
-    private Map<String, CoverageLevel2> localeToCoverageLevelInfo = new ConcurrentHashMap<String, CoverageLevel2>();
-    private CoverageCache coverageCache = new CoverageCache();
+    /**
+     * Maximum number of locales whose coverage levels are kept; set with -DCOVERAGE_TABLE_CACHE_SIZE=...
+     */
+    private static final int COVERAGE_TABLE_CACHE_SIZE = Integer.parseInt(CldrUtility.getProperty(
+        "COVERAGE_TABLE_CACHE_SIZE", "10"));
+    private Cache<String, CoverageLevelTable> localeToCoverageLevelTable = CacheBuilder.newBuilder()
+        .maximumSize(COVERAGE_TABLE_CACHE_SIZE)
+        .build();
     private transient String lastPluralLocales = "";
     private transient PluralType lastPluralWasOrdinal = null;
     private transient Map<Count, String> lastPluralMap = new EnumMap<Count, String>(Count.class);
@@ -3024,8 +3058,8 @@ public class SupplementalDataInfo {
         }
     }
 
-    static String lastPluralRangesLocales = null;
-    static PluralRanges lastPluralRanges = null;
+    private transient String lastPluralRangesLocales = null;
+    private transient PluralRanges lastPluralRanges = null;
 
     private boolean addPluralPath(XPathParts path, String value) {
         /*
@@ -3693,14 +3727,17 @@ public class SupplementalDataInfo {
      * @return the set of locales that have rules for the specified plural type
      */
     public Set<String> getPluralLocales(PluralType type) {
+        ensureLoaded(Section.plurals);
         return localeToPluralInfo2.get(type).keySet();
     }
 
     public Set<String> getPluralRangesLocales() {
+        ensureLoaded(Section.plurals);
         return localeToPluralRanges.keySet();
     }
 
     public PluralRanges getPluralRanges(String locale) {
+        ensureLoaded(Section.plurals);
         return localeToPluralRanges.get(locale);
     }
 
@@ -3737,6 +3774,7 @@ public class SupplementalDataInfo {
      * @return
      */
     public PluralInfo getPlurals(PluralType type, String locale, boolean allowRoot) {
+        ensureLoaded(Section.plurals);
         Map<String, PluralInfo> infoMap = localeToPluralInfo2.get(type);
         while (locale != null) {
             if (!allowRoot && locale.equals("root")) {
@@ -4075,7 +4113,7 @@ public class SupplementalDataInfo {
     }
 
     public String getDefaultScript(String baseLanguage) {
-        String ls = likelySubtags.get(baseLanguage);
+        String ls = getLikelySubtags().get(baseLanguage);
         if (ls == null) {
             return UNKNOWN_SCRIPT;
         }
@@ -4234,6 +4272,48 @@ public class SupplementalDataInfo {
         return directory;
     }
 
+    private volatile LocaleGraph localeGraph;
+
+    /**
+     * Get the graph of locale parents and children, for the locales in the ldml directories (main, annotations, ...)
+     * of common (the parent of the supplemental directory), seed and exemplars, and in the parentLocales and
+     * defaultContent data. Built the first time it is needed.
+     */
+    public LocaleGraph getLocaleGraph() {
+        LocaleGraph result = localeGraph;
+        if (result == null) {
+            synchronized (this) {
+                result = localeGraph;
+                if (result == null) {
+                    Set<String> locales = new TreeSet<String>();
+                    locales.addAll(parentLocales.keySet());
+                    locales.addAll(parentLocales.values());
+                    if (defaultContentLocales != null) {
+                        locales.addAll(defaultContentLocales);
+                    }
+                    File commonDirectory = directory.getParentFile();
+                    File baseDirectory = commonDirectory.getParentFile();
+                    for (File dataDirectory : Arrays.asList(commonDirectory,
+                        new File(baseDirectory, "seed"), new File(baseDirectory, "exemplars"))) {
+                        for (String subdirectory : DtdType.ldml.directories) {
+                            String[] files = new File(dataDirectory, subdirectory).list();
+                            if (files == null) {
+                                continue;
+                            }
+                            for (String file : files) {
+                                if (file.endsWith(".xml")) {
+                                    locales.add(file.substring(0, file.length() - 4));
+                                }
+                            }
+                        }
+                    }
+                    localeGraph = result = LocaleGraph.build(locales, this);
+                }
+            }
+        }
+        return result;
+    }
+
     public final static Splitter WHITESPACE_SPLTTER = Splitter.on(PatternCache.get("\\s+")).omitEmptyStrings();
 
     public static final class AttributeValidityInfo {
@@ -0,0 +1,178 @@
+package org.unicode.cldr.util;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.ibm.icu.util.ICUUncheckedIOException;
+
+/**
+ * Binary snapshot of what SupplementalDataInfo reads from the supplemental and bcp47 XML files: the (path, value)
+ * pairs of each file, in document order. Replaying a snapshot into the handler builds the same SupplementalDataInfo
+ * as parsing the XML, without the parser or DTD validation. The layout follows XMLSourceSnapshot:
+ * <ul>
+ * <li>header: magic, format version, and the (path, lastModified, length, crc32) of each source XML file, then the
+ * same for each DTD file they reference</li>
+ * <li>for each file: the number of pairs, then each path as a delta from the previous one (shared prefix length +
+ * suffix) followed by the value</li>
+ * </ul>
+ * A snapshot is only used if the same files are present, in the same order, and they and their DTDs are unchanged.
+ */
+final class SupplementalDataSnapshot {
+    private static final int MAGIC = 0x434C5344; // "CLSD"
+    private static final int FORMAT_VERSION = 2;
+
+    private static final boolean DEBUG = false;
+
+    private SupplementalDataSnapshot() {
+    }
+
+    /**
+     * Get the snapshot file for a part (see SupplementalDataInfo.Section) of a supplemental directory, within the
+     * snapshot directory.
+     */
+    static File getSnapshotFile(File snapshotDirectory, File supplementalDirectory, String part) {
+        String dirName = supplementalDirectory.getAbsolutePath().replaceAll("[^A-Za-z0-9.-]+", "_");
+        return new File(new File(snapshotDirectory, dirName), "supplementalData-" + part + ".snapshot");
+    }
+
+    /**
+     * Records the pairs passed to a handler, file by file, while forwarding them.
+     */
+    static class Recorder extends XMLFileReader.SimpleHandler {
+        private final XMLFileReader.SimpleHandler handler;
+        private final List<List<String>> files = new ArrayList<List<String>>();
+        private List<String> current;
+
+        Recorder(XMLFileReader.SimpleHandler handler) {
+            this.handler = handler;
+        }
+
+        /**
+         * Call before each file is read.
+         */
+        void startFile() {
+            files.add(current = new ArrayList<String>());
+        }
+
+        @Override
+        public void handlePathValue(String path, String value) {
+            current.add(path);
+            current.add(value);
+            handler.handlePathValue(path, value);
+        }
+    }
+
+    /**
+     * Replay a snapshot into the handler, calling handler.cleanup() after each file, as the XML loading does.
+     * Returns false, without touching the handler, if the snapshot doesn't exist, is in an older format or damaged,
+     * or any of the source files have changed.
+     */
+    static boolean read(File snapshotFile, List<File> sourceFiles, SupplementalDataInfo.MyHandler handler) {
+        if (!snapshotFile.canRead()) {
+            return false;
+        }
+        try (FileChannel channel = FileChannel.open(snapshotFile.toPath(), StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return read(buffer, sourceFiles, handler);
+        } catch (IOException | RuntimeException e) {
+            if (DEBUG) {
+                System.err.println("Ignoring unreadable snapshot " + snapshotFile + ": " + e);
+            }
+            return false;
+        }
+    }
+
+    private static boolean read(ByteBuffer buffer, List<File> sourceFiles, SupplementalDataInfo.MyHandler handler)
+        throws IOException {
+        if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+            return false;
+        }
+        if (!XMLSourceSnapshot.checkFiles(buffer, sourceFiles)
+            || !XMLSourceSnapshot.checkFiles(buffer, XMLSourceSnapshot.getDtdFiles(sourceFiles))) {
+            return false;
+        }
+        int sourceCount = sourceFiles.size();
+        // decode everything before replaying, so that a damaged snapshot doesn't leave partial data
+        List<String[]> files = new ArrayList<String[]>();
+        for (int i = 0; i < sourceCount; ++i) {
+            String[] pathsAndValues = new String[2 * buffer.getInt()];
+            String lastPath = "";
+            for (int j = 0; j < pathsAndValues.length; j += 2) {
+                int shared = buffer.getInt();
+                String path = lastPath.substring(0, shared) + XMLSourceSnapshot.getString(buffer);
+                pathsAndValues[j] = path;
+                pathsAndValues[j + 1] = XMLSourceSnapshot.getString(buffer);
+                lastPath = path;
+            }
+            files.add(pathsAndValues);
+        }
+        for (String[] pathsAndValues : files) {
+            for (int j = 0; j < pathsAndValues.length; j += 2) {
+                handler.handlePathValue(pathsAndValues[j], pathsAndValues[j + 1]);
+            }
+            handler.cleanup();
+        }
+        return true;
+    }
+
+    /**
+     * Write a snapshot of the pairs recorded while reading the source files. As with XMLSourceSnapshot, it is
+     * written to a temporary file and then moved into place.
+     */
+    static void write(File snapshotFile, List<File> sourceFiles, Recorder recorder) {
+        if (recorder.files.size() != sourceFiles.size()) {
+            throw new IllegalArgumentException("Recorded " + recorder.files.size() + " files, but have "
+                + sourceFiles.size() + " source files");
+        }
+        File dir = snapshotFile.getParentFile();
+        if (!dir.isDirectory() && !dir.mkdirs() && !dir.isDirectory()) {
+            throw new ICUUncheckedIOException("Can't create snapshot directory " + dir);
+        }
+        File temp = null;
+        try {
+            temp = File.createTempFile(snapshotFile.getName(), ".tmp", dir);
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+                write(out, sourceFiles, recorder.files);
+            }
+            Files.move(temp.toPath(), snapshotFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new ICUUncheckedIOException("Can't write snapshot " + snapshotFile, e);
+        } finally {
+            if (temp != null) {
+                temp.delete(); // no-op if the move succeeded
+            }
+        }
+    }
+
+    private static void write(DataOutputStream out, List<File> sourceFiles, List<List<String>> files)
+        throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        XMLSourceSnapshot.putFiles(out, sourceFiles);
+        XMLSourceSnapshot.putFiles(out, XMLSourceSnapshot.getDtdFiles(sourceFiles));
+        for (List<String> pathsAndValues : files) {
+            out.writeInt(pathsAndValues.size() / 2);
+            String lastPath = "";
+            for (int i = 0; i < pathsAndValues.size(); i += 2) {
+                String path = pathsAndValues.get(i);
+                int shared = XMLSourceSnapshot.sharedPrefixLength(lastPath, path);
+                out.writeInt(shared);
+                XMLSourceSnapshot.putString(out, path.substring(shared));
+                XMLSourceSnapshot.putString(out, pathsAndValues.get(i + 1));
+                lastPath = path;
+            }
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package org.unicode.cldr.util;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+
+/**
+ * Process-wide pool of the values loaded into XMLSources. Many values (digits, symbols, patterns, inheritance markers)
+ * are the same in hundreds of locales, so the loaders pass each value through intern(), and files share one String
+ * instead of each keeping its own copy. The pool holds its strings weakly, so values no longer in any file can still
+ * be collected.
+ * <p>
+ * The loaders also register the sources they fill with track(), which holds them weakly, so that getBytesSaved() can
+ * measure the sharing among the sources that are still alive.
+ */
+public final class ValuePool {
+    // rough size of a String apart from its characters, for the bytes-saved estimate
+    private static final int STRING_BYTES = 40;
+
+    private static final Interner<String> interner = Interners.newWeakInterner();
+    private static final Cache<XMLSource, Boolean> trackedSources = CacheBuilder.newBuilder().weakKeys().build();
+    private static final AtomicLong lookups = new AtomicLong();
+    private static final AtomicLong duplicates = new AtomicLong();
+
+    private ValuePool() {
+    }
+
+    /**
+     * Return the pooled instance equal to the value, adding it if there isn't one. Null is returned unchanged.
+     */
+    public static String intern(String value) {
+        if (value == null) {
+            return null;
+        }
+        String result = interner.intern(value);
+        lookups.incrementAndGet();
+        if (result != value) {
+            duplicates.incrementAndGet();
+        }
+        return result;
+    }
+
+    /**
+     * Register a source whose values were pooled, for getBytesSaved(). The source is dropped once it is collected.
+     */
+    public static void track(XMLSource source) {
+        trackedSources.put(source, Boolean.TRUE);
+    }
+
+    /**
+     * Approximate number of bytes saved by sharing, among the tracked sources that are still alive: each value that
+     * is the same instance as one already counted would otherwise be a separate copy. Released sources (such as an
+     * earlier load of a reloaded locale) no longer count. This walks every value in those sources, so it is meant
+     * for occasional reporting.
+     */
+    public static long getBytesSaved() {
+        Map<String, Boolean> seen = new IdentityHashMap<String, Boolean>();
+        long result = 0;
+        for (XMLSource source : trackedSources.asMap().keySet()) {
+            for (String path : source) {
+                String value = source.getValueAtDPath(path);
+                if (value != null && seen.put(value, Boolean.TRUE) != null) {
+                    result += STRING_BYTES + 2L * value.length();
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Summary of the pool's activity, for logging and the admin panel.
+     */
+    public static String stats() {
+        return "lookups:" + lookups.get()
+            + " duplicates:" + duplicates.get()
+            + " sources:" + trackedSources.size()
+            + " saved:~" + (getBytesSaved() >> 10) + "KB";
+    }
+}
@@ -21,7 +21,10 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
-import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -64,7 +67,8 @@ public abstract class XMLSource implements Freezable<XMLSource>, Iterable<String
     }
 
     // Listeners are stored using weak references so that they can be garbage collected.
-    private List<WeakReference<Listener>> listeners = new ArrayList<WeakReference<Listener>>();
+    // Copy-on-write, since listeners may be added (eg by CLDRFile.getName) while another thread is notifying.
+    private List<WeakReference<Listener>> listeners = new CopyOnWriteArrayList<WeakReference<Listener>>();
 
     public String getLocaleID() {
         return localeID;
@@ -847,15 +851,25 @@ public abstract class XMLSource implements Freezable<XMLSource>, Iterable<String
             return getSource(fullStatus).getValueAtDPath(fullStatus.pathWhereFound);
         }
 
+        /**
+         * Get the location of the path, from the cache if possible. Readers don't block each other: two threads may
+         * both compute a location for the same path, in which case the first one cached wins. (computeIfAbsent can't be
+         * used, since getPathLocation recurses back here for aliases.)
+         */
         private AliasLocation getCachedFullStatus(String xpath) {
-            synchronized (getSourceLocaleIDCache) {
-                AliasLocation fullStatus = getSourceLocaleIDCache.get(xpath);
-                if (fullStatus == null) {
-                    fullStatus = getPathLocation(xpath, false);
-                    getSourceLocaleIDCache.put(xpath, fullStatus); // cache copy
+            AliasLocation fullStatus = getSourceLocaleIDCache.get(xpath);
+            if (fullStatus == null) {
+                int generation = cacheGeneration.get();
+                fullStatus = getPathLocation(xpath, false);
+                AliasLocation old = getSourceLocaleIDCache.putIfAbsent(xpath, fullStatus); // cache copy
+                if (old != null) {
+                    fullStatus = old;
+                } else if (cacheGeneration.get() != generation) {
+                    // valueChanged ran while we were computing, so what we cached may be stale
+                    getSourceLocaleIDCache.remove(xpath, fullStatus);
                 }
-                return fullStatus;
             }
+            return fullStatus;
         }
 
         // private String _getFullPathAtDPath(String xpath) {
@@ -918,7 +932,11 @@ public abstract class XMLSource implements Freezable<XMLSource>, Iterable<String
         // }
         // }
 
-        private transient Map<String, AliasLocation> getSourceLocaleIDCache = new WeakHashMap<String, AliasLocation>();
+        private transient ConcurrentMap<String, AliasLocation> getSourceLocaleIDCache = new ConcurrentHashMap<String, AliasLocation>();
+        /**
+         * Bumped by valueChanged before it invalidates, so that a lookup racing with it doesn't leave a stale entry behind.
+         */
+        private transient AtomicInteger cacheGeneration = new AtomicInteger();
 
         public String getSourceLocaleID(String distinguishedXPath, CLDRFile.Status status) {
             AliasLocation fullStatus = getCachedFullStatus(distinguishedXPath);
@@ -1105,6 +1123,7 @@ public abstract class XMLSource implements Freezable<XMLSource>, Iterable<String
         }
 
         private transient Set<String> cachedKeySet = null;
+        private transient volatile PrefixIndex prefixIndex = null; // of the cachedKeySet
 
         /**
          * @return an iterator over all the xpaths in this XMLSource.
@@ -1113,6 +1132,21 @@ public abstract class XMLSource implements Freezable<XMLSource>, Iterable<String
             return getCachedKeySet().iterator();
         }
 
+        /**
+         * The keys are cached, so prefix scans can use a sorted index of them.
+         */
+        @Override
+        public Iterator<String> iterator(String prefix) {
+            if (prefix == null || prefix.length() == 0) {
+                return iterator();
+            }
+            PrefixIndex index = prefixIndex;
+            if (index == null) {
+                prefixIndex = index = new PrefixIndex(iterator());
+            }
+            return index.iterator(prefix);
+        }
+
         private Set<String> getCachedKeySet() {
             if (cachedKeySet == null) {
                 cachedKeySet = fillKeys();
@@ -1149,18 +1183,18 @@ public abstract class XMLSource implements Freezable<XMLSource>, Iterable<String
 
         @Override
         public void valueChanged(String xpath, XMLSource nonResolvingSource) {
-            synchronized (getSourceLocaleIDCache) {
-                AliasLocation location = getSourceLocaleIDCache.remove(xpath);
-                if (location == null) return;
-                // Paths aliasing to this path (directly or indirectly) may be affected,
-                // so clear them as well.
-                // There's probably a more elegant way to fix the paths than simply
-                // throwing everything out.
-                Set<String> dependentPaths = getDirectAliases(new String[] { xpath });
-                if (dependentPaths.size() > 0) {
-                    for (String path : dependentPaths) {
-                        getSourceLocaleIDCache.remove(path);
-                    }
+            cacheGeneration.incrementAndGet();
+            AliasLocation location = getSourceLocaleIDCache.remove(xpath);
+            notifyListeners(xpath); // so that listeners on the resolved file hear about changes in its chain
+            if (location == null) return;
+            // Paths aliasing to this path (directly or indirectly) may be affected,
+            // so clear them as well.
+            // There's probably a more elegant way to fix the paths than simply
+            // throwing everything out.
+            Set<String> dependentPaths = getDirectAliases(new String[] { xpath });
+            if (dependentPaths.size() > 0) {
+                for (String path : dependentPaths) {
+                    getSourceLocaleIDCache.remove(path);
                 }
             }
         }
@@ -1486,10 +1520,8 @@ public abstract class XMLSource implements Freezable<XMLSource>, Iterable<String
             List<XMLSource> children = new ArrayList<XMLSource>();
             Set<String> filteredPaths = new HashSet<String>();
             for (XMLSource source : sources.values()) {
-                Set<String> pathsWithValue = new HashSet<String>();
-                source.getPathsWithValue(valueToMatch, pathPrefix, pathsWithValue);
                 // Don't add a path with the value if it is overridden by a child locale.
-                for (String pathWithValue : pathsWithValue) {
+                for (String pathWithValue : source.getPathsWithValue(valueToMatch, pathPrefix)) {
                     if (!sourcesHavePath(pathWithValue, children)) {
                         filteredPaths.add(pathWithValue);
                     }
@@ -1586,14 +1618,12 @@ public abstract class XMLSource implements Freezable<XMLSource>, Iterable<String
      *            the xpath where the change occurred.
      */
     protected void notifyListeners(String xpath) {
-        int i = 0;
-        while (i < listeners.size()) {
-            Listener listener = listeners.get(i).get();
+        for (WeakReference<Listener> reference : listeners) {
+            Listener listener = reference.get();
             if (listener == null) { // listener has been garbage-collected.
-                listeners.remove(i);
+                listeners.remove(reference);
             } else {
                 listener.valueChanged(xpath, this);
-                i++;
             }
         }
     }
@@ -1619,6 +1649,17 @@ public abstract class XMLSource implements Freezable<XMLSource>, Iterable<String
      */
     public abstract void getPathsWithValue(String valueToMatch, String pathPrefix, Set<String> result);
 
+    /**
+     * Returns the paths with the specified value and prefix, as in getPathsWithValue(String, String, Set). The result
+     * is read-only, and may be a view of an index in the source, so it must be used before the source is changed.
+     * SUBCLASSING: the default copies the paths into a new set; override if there's an index that can be read directly.
+     */
+    public Iterable<String> getPathsWithValue(String valueToMatch, String pathPrefix) {
+        Set<String> result = new HashSet<String>();
+        getPathsWithValue(valueToMatch, pathPrefix, result);
+        return result;
+    }
+
     public VersionInfo getDtdVersionInfo() {
         return null;
     }
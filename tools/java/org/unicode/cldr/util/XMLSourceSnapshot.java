@@ -0,0 +1,378 @@
+package org.unicode.cldr.util;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+import org.unicode.cldr.util.CLDRFile.DraftStatus;
+import org.unicode.cldr.util.XPathParts.Comments;
+import org.unicode.cldr.util.XPathParts.Comments.CommentType;
+
+import com.ibm.icu.util.ICUUncheckedIOException;
+import com.ibm.icu.util.VersionInfo;
+
+/**
+ * Compact binary snapshot of the contents of an unresolved CLDRFile, so that a warm start doesn't need to
+ * go through the XML parser. The layout is:
+ * <ul>
+ * <li>header: magic, format version, and the (path, lastModified, length, crc32) of each source XML file, then the
+ * same for each DTD file they reference</li>
+ * <li>locale ID, DtdType, nonInheriting flag, DTD version</li>
+ * <li>value pool: each distinct value once</li>
+ * <li>path table: distinguished paths in sorted order, each stored as a delta (shared prefix length + suffix) from
+ * the previous one, with an index into the value pool and the full path stored as a delta from the distinguished
+ * path (only where they differ)</li>
+ * <li>comments</li>
+ * </ul>
+ * A snapshot is only used if all of its source files and DTDs are unchanged (the validating parse fills in default
+ * attribute values from the DTD, so a DTD change can change the contents); the check uses the modification time and
+ * length, and falls back to the CRC if only the time differs (eg after a fresh checkout).
+ */
+public final class XMLSourceSnapshot {
+    private static final int MAGIC = 0x434C4453; // "CLDS"
+    private static final int FORMAT_VERSION = 2;
+    private static final int NO_FULL_PATH = -1;
+
+    private static final Pattern DOCTYPE = Pattern.compile("<!DOCTYPE\\s+\\S+\\s+SYSTEM\\s+[\"']([^\"']+)[\"']");
+    private static final int DOCTYPE_SEARCH_LIMIT = 0x2000;
+
+    private static final boolean DEBUG = false;
+
+    private XMLSourceSnapshot() {
+    }
+
+    /**
+     * Get the snapshot file used for a given locale and set of source directories, within the snapshot directory.
+     */
+    public static File getSnapshotFile(File snapshotDirectory, List<File> sourceDirectories, String localeName,
+        DraftStatus minimalDraftStatus) {
+        StringBuilder dirName = new StringBuilder();
+        for (File dir : sourceDirectories) {
+            if (dirName.length() != 0) {
+                dirName.append('+');
+            }
+            dirName.append(dir.getAbsolutePath().replaceAll("[^A-Za-z0-9.-]+", "_"));
+        }
+        return new File(new File(snapshotDirectory, dirName.toString()),
+            localeName + "-" + minimalDraftStatus + ".snapshot");
+    }
+
+    /**
+     * Load a CLDRFile from a snapshot, returning null if the snapshot doesn't exist, is in an older format, or if any
+     * of the source files have changed since it was written.
+     */
+    public static CLDRFile read(File snapshotFile, List<File> sourceFiles) {
+        if (!snapshotFile.canRead()) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(snapshotFile.toPath(), StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return read(buffer, sourceFiles);
+        } catch (IOException | RuntimeException e) {
+            if (DEBUG) {
+                System.err.println("Ignoring unreadable snapshot " + snapshotFile + ": " + e);
+            }
+            return null;
+        }
+    }
+
+    private static CLDRFile read(ByteBuffer buffer, List<File> sourceFiles) throws IOException {
+        if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+            return null;
+        }
+        if (!checkFiles(buffer, sourceFiles) || !checkFiles(buffer, getDtdFiles(sourceFiles))) {
+            return null;
+        }
+
+        SimpleXMLSource source = new SimpleXMLSource(getString(buffer));
+        String dtdTypeName = getString(buffer);
+        source.setNonInheriting(buffer.get() != 0);
+        String dtdVersion = getString(buffer);
+        if (dtdVersion != null) {
+            source.setDtdVersionInfo(VersionInfo.getInstance(dtdVersion));
+        }
+
+        String[] values = new String[buffer.getInt()];
+        for (int i = 0; i < values.length; ++i) {
+            values[i] = ValuePool.intern(getString(buffer));
+        }
+
+        int pathCount = buffer.getInt();
+        String lastPath = "";
+        for (int i = 0; i < pathCount; ++i) {
+            int shared = buffer.getInt();
+            String path = lastPath.substring(0, shared) + getString(buffer);
+            source.putValueAtDPath(path, values[buffer.getInt()]);
+            int fullPrefix = buffer.getInt();
+            if (fullPrefix != NO_FULL_PATH) {
+                int fullSuffix = buffer.getInt();
+                String middle = getString(buffer);
+                source.putFullPathAtDPath(path, path.substring(0, fullPrefix) + middle
+                    + path.substring(path.length() - fullSuffix));
+            }
+            lastPath = path;
+        }
+
+        Comments comments = new Comments();
+        comments.setInitialComment(getString(buffer));
+        comments.setFinalComment(getString(buffer));
+        for (CommentType style : CommentType.values()) {
+            int count = buffer.getInt();
+            for (int i = 0; i < count; ++i) {
+                String xpath = getString(buffer);
+                comments.addComment(style, xpath, getString(buffer));
+            }
+        }
+        source.setXpathComments(comments);
+        ValuePool.track(source);
+
+        CLDRFile result = new CLDRFile(source);
+        if (dtdTypeName != null) {
+            result.setDtdType(DtdType.valueOf(dtdTypeName));
+        }
+        return result;
+    }
+
+    /**
+     * Write a snapshot of an unresolved CLDRFile loaded from the given source files. The snapshot is written to a
+     * temporary file and then moved into place, so concurrent readers never see a partial snapshot.
+     */
+    public static void write(File snapshotFile, List<File> sourceFiles, CLDRFile cldrFile) {
+        XMLSource source = cldrFile.dataSource;
+        if (source.isResolving()) {
+            throw new IllegalArgumentException("Only unresolved files can be snapshotted: " + cldrFile.getLocaleID());
+        }
+        File dir = snapshotFile.getParentFile();
+        if (!dir.isDirectory() && !dir.mkdirs() && !dir.isDirectory()) {
+            throw new ICUUncheckedIOException("Can't create snapshot directory " + dir);
+        }
+        File temp = null;
+        try {
+            temp = File.createTempFile(snapshotFile.getName(), ".tmp", dir);
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+                write(out, sourceFiles, cldrFile);
+            }
+            Files.move(temp.toPath(), snapshotFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new ICUUncheckedIOException("Can't write snapshot " + snapshotFile, e);
+        } finally {
+            if (temp != null) {
+                temp.delete(); // no-op if the move succeeded
+            }
+        }
+    }
+
+    private static void write(DataOutputStream out, List<File> sourceFiles, CLDRFile cldrFile) throws IOException {
+        XMLSource source = cldrFile.dataSource;
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        putFiles(out, sourceFiles);
+        putFiles(out, getDtdFiles(sourceFiles));
+
+        putString(out, source.getLocaleID());
+        DtdType dtdType = cldrFile.getDtdType();
+        putString(out, dtdType == null ? null : dtdType.name());
+        out.writeByte(source.isNonInheriting() ? 1 : 0);
+        VersionInfo dtdVersion = source.getDtdVersionInfo();
+        putString(out, dtdVersion == null ? null : dtdVersion.toString());
+
+        List<String> pathList = new ArrayList<String>();
+        for (String path : source) {
+            pathList.add(path);
+        }
+        String[] paths = pathList.toArray(new String[pathList.size()]);
+        Arrays.sort(paths);
+
+        Map<String, Integer> valueToIndex = new HashMap<String, Integer>();
+        List<String> values = new ArrayList<String>();
+        int[] valueIndices = new int[paths.length];
+        for (int i = 0; i < paths.length; ++i) {
+            String value = source.getValueAtDPath(paths[i]);
+            Integer index = valueToIndex.get(value);
+            if (index == null) {
+                valueToIndex.put(value, index = values.size());
+                values.add(value);
+            }
+            valueIndices[i] = index;
+        }
+        out.writeInt(values.size());
+        for (String value : values) {
+            putString(out, value);
+        }
+
+        out.writeInt(paths.length);
+        String lastPath = "";
+        for (int i = 0; i < paths.length; ++i) {
+            String path = paths[i];
+            int shared = sharedPrefixLength(lastPath, path);
+            out.writeInt(shared);
+            putString(out, path.substring(shared));
+            out.writeInt(valueIndices[i]);
+            String fullPath = source.getFullPathAtDPath(path);
+            if (fullPath == null || fullPath.equals(path)) {
+                out.writeInt(NO_FULL_PATH);
+            } else {
+                int prefix = sharedPrefixLength(path, fullPath);
+                int suffix = sharedSuffixLength(path, fullPath, prefix);
+                out.writeInt(prefix);
+                out.writeInt(suffix);
+                putString(out, fullPath.substring(prefix, fullPath.length() - suffix));
+            }
+            lastPath = path;
+        }
+
+        Comments comments = source.getXpathComments();
+        putString(out, comments.getInitialComment());
+        putString(out, comments.getFinalComment());
+        for (CommentType style : CommentType.values()) {
+            Map<String, String> styleComments = comments.getComments(style);
+            out.writeInt(styleComments.size());
+            for (Entry<String, String> entry : styleComments.entrySet()) {
+                putString(out, entry.getKey());
+                putString(out, entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Write the (path, lastModified, length, crc32) of each file, preceded by the count.
+     */
+    static void putFiles(DataOutputStream out, List<File> files) throws IOException {
+        out.writeInt(files.size());
+        for (File file : files) {
+            putString(out, file.getAbsolutePath());
+            out.writeLong(file.lastModified());
+            out.writeLong(file.length());
+            out.writeLong(getCrc(file));
+        }
+    }
+
+    /**
+     * Read what putFiles wrote, returning true if it is for the same files, in the same order, and they are unchanged.
+     */
+    static boolean checkFiles(ByteBuffer buffer, List<File> files) throws IOException {
+        if (buffer.getInt() != files.size()) {
+            return false;
+        }
+        for (File file : files) {
+            String name = getString(buffer);
+            long lastModified = buffer.getLong();
+            long length = buffer.getLong();
+            long crc = buffer.getLong();
+            if (!name.equals(file.getAbsolutePath()) || !isUnchanged(file, lastModified, length, crc)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Get the DTD files named in the DOCTYPE of the source files, resolved against each file's directory as the
+     * parser does, without duplicates.
+     */
+    static List<File> getDtdFiles(List<File> sourceFiles) throws IOException {
+        Set<File> result = new LinkedHashSet<File>();
+        byte[] bytes = new byte[DOCTYPE_SEARCH_LIMIT];
+        for (File sourceFile : sourceFiles) {
+            int length = 0;
+            try (InputStream in = new FileInputStream(sourceFile)) {
+                for (int len; length < bytes.length && (len = in.read(bytes, length, bytes.length - length)) > 0;) {
+                    length += len;
+                }
+            }
+            Matcher matcher = DOCTYPE.matcher(new String(bytes, 0, length, StandardCharsets.UTF_8));
+            if (matcher.find()) {
+                File dtdFile = new File(sourceFile.getAbsoluteFile().getParentFile(), matcher.group(1));
+                if (dtdFile.isFile()) {
+                    result.add(dtdFile.getCanonicalFile());
+                }
+            }
+        }
+        return new ArrayList<File>(result);
+    }
+
+    static boolean isUnchanged(File sourceFile, long lastModified, long length, long crc) throws IOException {
+        if (sourceFile.length() != length) {
+            return false;
+        }
+        if (sourceFile.lastModified() == lastModified) {
+            return true;
+        }
+        return getCrc(sourceFile) == crc;
+    }
+
+    static long getCrc(File file) throws IOException {
+        CRC32 crc = new CRC32();
+        byte[] buffer = new byte[0x10000];
+        try (InputStream in = new FileInputStream(file)) {
+            for (int len; (len = in.read(buffer)) > 0;) {
+                crc.update(buffer, 0, len);
+            }
+        }
+        return crc.getValue();
+    }
+
+    static int sharedPrefixLength(String a, String b) {
+        int limit = Math.min(a.length(), b.length());
+        int i = 0;
+        while (i < limit && a.charAt(i) == b.charAt(i)) {
+            ++i;
+        }
+        return i;
+    }
+
+    /**
+     * Length of the common suffix, not overlapping the common prefix in either string.
+     */
+    private static int sharedSuffixLength(String a, String b, int prefix) {
+        int limit = Math.min(a.length(), b.length()) - prefix;
+        int i = 0;
+        while (i < limit && a.charAt(a.length() - 1 - i) == b.charAt(b.length() - 1 - i)) {
+            ++i;
+        }
+        return i;
+    }
+
+    static void putString(DataOutputStream out, String string) throws IOException {
+        if (string == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    static String getString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
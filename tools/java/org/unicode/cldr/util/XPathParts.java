@@ -19,8 +19,10 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.TreeMap;
-import java.util.concurrent.ConcurrentHashMap;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSet.Builder;
 import com.ibm.icu.impl.Utility;
@@ -38,7 +40,16 @@ public final class XPathParts implements Freezable<XPathParts> {
     private DtdData dtdData;
     private final Map<String, Map<String, String>> suppressionMap;
 
-    private static final Map<String, XPathParts> cache = new ConcurrentHashMap<String, XPathParts>();
+    /**
+     * Maximum number of frozen instances kept by getFrozenInstance; set with -DXPATH_PARTS_CACHE_SIZE=...
+     */
+    private static final int CACHE_SIZE = Integer.parseInt(CldrUtility.getProperty("XPATH_PARTS_CACHE_SIZE", "100000"));
+
+    private static final Cache<String, XPathParts> cache = CacheBuilder.newBuilder()
+        .maximumSize(CACHE_SIZE)
+        .concurrencyLevel(16)
+        .recordStats()
+        .build();
 
     //private static final Map<Element, Element> ELEMENT_CACHE = new ConcurrentHashMap<Element, Element>();
 
@@ -170,6 +181,13 @@ public final class XPathParts implements Freezable<XPathParts> {
             return comments.get(style).get(xpath);
         }
 
+        /**
+         * Get all the comments of the given style, keyed by xpath. Package-private, for XMLSourceSnapshot.
+         */
+        Map<String, String> getComments(CommentType style) {
+            return Collections.unmodifiableMap(comments.get(style));
+        }
+
         public Comments addComment(CommentType style, String xpath, String comment) {
             String existing = comments.get(style).get(xpath);
             if (existing != null) {
@@ -1198,14 +1216,33 @@ public final class XPathParts implements Freezable<XPathParts> {
         return new XPathParts(elements, null, suppressionMap);
     }
 
-    public static synchronized XPathParts getFrozenInstance(String path) {
-        XPathParts result = cache.get(path);
+    /**
+     * Get a frozen XPathParts for the path, from a bounded cache. Doesn't lock: if two threads miss on the same path at
+     * once, both parse it, and the later one replaces the earlier (equal) instance.
+     */
+    public static XPathParts getFrozenInstance(String path) {
+        XPathParts result = cache.getIfPresent(path);
         if (result == null) {
-            cache.put(path, result = new XPathParts().set(path).freeze());
+            result = new XPathParts().set(path).freeze();
+            cache.put(path, result);
         }
         return result;
     }
 
+    /**
+     * Hit, miss, and eviction counts for the getFrozenInstance cache.
+     */
+    public static CacheStats getFrozenInstanceCacheStatistics() {
+        return cache.stats();
+    }
+
+    /**
+     * Approximate number of entries in the getFrozenInstance cache.
+     */
+    public static long getFrozenInstanceCacheSize() {
+        return cache.size();
+    }
+
     public static XPathParts getInstance(String path) {
         return getFrozenInstance(path).cloneAsThawed();
     }